@@ -0,0 +1,417 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * ArchiveCorpus reads a ZIP or TAR archive of many small texts and sends
+ * every entry through the Scanner, Document and DocumentStatistics chain
+ * without unpacking the archive to disk. The archive itself may be gzip or
+ * deflate compressed, as in a .tar.gz file. Each entry is read into memory
+ * and scanned by a reused Scanner, so the cost of opening a file for every
+ * text is paid once per archive. Entries can be fingerprinted in parallel.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class ArchiveCorpus
+{
+	/** size of one TAR header or data block */
+	private static final int BLOCK = 512;
+
+	/** number of entries read ahead of the workers for every thread */
+	private static final int WINDOW_PER_THREAD = 8;
+
+	/** the archive to read */
+	private File archive;
+
+	/** Scanner of every worker thread, reused from one entry to the next */
+	private static final ThreadLocal<Scanner> SCANNERS = new ThreadLocal<Scanner>()
+	{
+		protected Scanner initialValue()
+		{
+			return new Scanner(new StringReader(""));
+		}
+	};
+
+	/**
+	 * Constructs an ArchiveCorpus for the given archive.
+	 * @param archive specify the ZIP or TAR file to read
+	 */
+	public ArchiveCorpus(File archive)
+	{
+		this.archive = archive;
+	}
+
+	/**
+	 * Computes the five features of every text entry of the archive.
+	 * Directories and other non-file entries are skipped. An archive may hold
+	 * several entries of the same name, for example a file appended twice to
+	 * a TAR; the second is keyed name#2, the third name#3 and so on.
+	 * @param threads specify the number of entries to fingerprint at once
+	 * @return a map from entry name to its features, in archive order
+	 * @throws IOException if the archive cannot be read or is not a ZIP or TAR
+	 */
+	public Map<String, double[]> fingerprint(int threads) throws IOException
+	{
+		Map<String, double[]> result = new LinkedHashMap<String, double[]>();
+		Map<String, Integer> seen = new HashMap<String, Integer>();
+		if(threads <= 1)
+		{
+			read((name, data, length) -> result.put(uniqueName(seen, name), fingerprint(data, length)));
+			return result;
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		OrderedWork<double[]> work = new OrderedWork<double[]>(pool, threads * WINDOW_PER_THREAD,
+				new OrderedWork.Sink<double[]>()
+				{
+					public void result(String name, double[] value)
+					{
+						result.put(name, value);
+					}
+
+					public void failure(String name, Throwable cause) throws IOException
+					{
+						throw new IOException("could not fingerprint " + name, cause);
+					}
+				});
+		try
+		{
+			read((name, data, length) ->
+			{
+				byte[] copy = Arrays.copyOf(data, length);
+				work.submit(uniqueName(seen, name), () -> fingerprint(copy, copy.length));
+			});
+			work.finish();
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns name the first time it is seen and name#k the k-th time.
+	 * @param seen specify the number of times each name has been seen so far
+	 * @param name specify the name of an entry
+	 * @return a name no earlier entry was given
+	 */
+	private static String uniqueName(Map<String, Integer> seen, String name)
+	{
+		int k = seen.merge(name, 1, Integer::sum);
+		return k == 1 ? name : name + "#" + k;
+	}
+
+	/**
+	 * Reads every file entry of the archive and passes its contents to handler.
+	 * The byte array given to handler is reused for the next entry.
+	 * @param handler specify what to do with each entry
+	 * @throws IOException if the archive cannot be read or is not a ZIP or TAR
+	 */
+	public void read(EntryHandler handler) throws IOException
+	{
+		InputStream in = new BufferedInputStream(
+				TextSource.decompress(new FileInputStream(archive)), TextSource.BUFFER_SIZE);
+		try
+		{
+			in.mark(BLOCK);
+			byte[] head = new byte[BLOCK];
+			int n = readFully(in, head, 0, BLOCK);
+			in.reset();
+			if(n >= 4 && head[0] == 'P' && head[1] == 'K' && head[2] == 3 && head[3] == 4)
+				readZip(in, handler);
+			else if(n == BLOCK && new String(head, 257, 5, "US-ASCII").equals("ustar"))
+				readTar(in, handler);
+			else
+				throw new IOException(archive + " is not a ZIP or TAR archive");
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+	/**
+	 * Computes the five features of one text held in memory, using the
+	 * Scanner of the current thread.
+	 * @param data specify the bytes of the text in the platform charset
+	 * @param length specify the number of bytes of data that hold the text
+	 * @return the five features of the text
+	 */
+	public static double[] fingerprint(byte[] data, int length)
+	{
+		return fingerprint(new StringReader(new String(data, 0, length, Charset.defaultCharset())));
+	}
+
+	/**
+	 * Computes the five features of the text read from in, using the
+	 * Scanner of the current thread.
+	 * @param in specify the reader of the text
+	 * @return the five features of the text
+	 */
+	public static double[] fingerprint(Reader in)
+	{
+		Scanner sc = SCANNERS.get();
+		sc.setReader(in);
+		Document doc = new Document(sc);
+		doc.parseDocument();
+		return new DocumentStatistics(doc).getFeatures();
+	}
+
+	/**
+	 * Reads the entries of a ZIP archive.
+	 * @param in specify the stream positioned at the start of the archive
+	 * @param handler specify what to do with each entry
+	 * @throws IOException if the archive cannot be read
+	 */
+	private void readZip(InputStream in, EntryHandler handler) throws IOException
+	{
+		ZipInputStream zip = new ZipInputStream(in);
+		Buffer buf = new Buffer();
+		ZipEntry e;
+		while((e = zip.getNextEntry()) != null)
+		{
+			if(e.isDirectory())
+				continue;
+			buf.reset();
+			buf.readFrom(zip);
+			handler.entry(e.getName(), buf.bytes(), buf.size());
+		}
+	}
+
+	/**
+	 * Reads the entries of a ustar, GNU or pax TAR archive. Long names written
+	 * as GNU 'L' entries or as the path of a pax 'x' header are used for the
+	 * next entry, and the path of a pax 'g' header for every later entry that
+	 * has no name of its own; other pax records and links are skipped. Only
+	 * POSIX ustar headers, whose magic ends with a NUL, have a name prefix.
+	 * @param in specify the stream positioned at the start of the archive
+	 * @param handler specify what to do with each entry
+	 * @throws IOException if the archive cannot be read
+	 */
+	private void readTar(InputStream in, EntryHandler handler) throws IOException
+	{
+		byte[] header = new byte[BLOCK];
+		byte[] data = new byte[BLOCK];
+		String longName = null;
+		String globalName = null;
+		while(readFully(in, header, 0, BLOCK) == BLOCK && header[0] != 0)
+		{
+			long size = parseOctal(header, 124, 12);
+			if(size > Integer.MAX_VALUE - BLOCK)
+				throw new IOException("TAR entry too large in " + archive);
+			int padded = (int) ((size + BLOCK - 1) / BLOCK * BLOCK);
+			if(data.length < padded)
+				data = new byte[Math.max(padded, data.length * 2)];
+			if(readFully(in, data, 0, padded) != padded)
+				throw new EOFException("truncated TAR archive " + archive);
+
+			char type = (char) header[156];
+			if(type == 'L')
+				longName = cString(data, 0, (int) size);
+			else if(type == 'x')
+			{
+				String path = paxPath(data, (int) size);
+				if(path != null)
+					longName = path;
+			}
+			else if(type == 'g')
+			{
+				String path = paxPath(data, (int) size);
+				if(path != null)
+					globalName = path;
+			}
+			else
+			{
+				if(type == '0' || type == '\0')
+				{
+					String name = longName;
+					if(name == null)
+						name = globalName;
+					if(name == null)
+					{
+						name = cString(header, 0, 100);
+						String prefix = header[262] == 0 ? cString(header, 345, 155) : "";
+						if(!prefix.isEmpty())
+							name = prefix + "/" + name;
+					}
+					handler.entry(name, data, (int) size);
+				}
+				longName = null;
+			}
+		}
+	}
+
+	/**
+	 * Finds the path record of a pax extended header. The header is a list
+	 * of records "LENGTH KEY=VALUE\n", where LENGTH is the decimal length of
+	 * the whole record and the value is UTF-8.
+	 * @param b specify the data of the header
+	 * @param size specify the number of bytes of b that hold the header
+	 * @return the value of the last path record, or null if there is none
+	 * @throws IOException if the header is malformed
+	 */
+	private String paxPath(byte[] b, int size) throws IOException
+	{
+		Charset utf8 = Charset.forName("UTF-8");
+		String path = null;
+		int pos = 0;
+		while(pos < size && b[pos] != 0)
+		{
+			int i = pos;
+			int length = 0;
+			while(i < size && b[i] >= '0' && b[i] <= '9' && length < size)
+				length = length * 10 + (b[i++] - '0');
+			int end = pos + length;
+			if(i == pos || i >= size || b[i] != ' ' || end > size || end <= i + 1
+					|| b[end - 1] != '\n')
+				throw new IOException("bad pax header in " + archive);
+			int eq = i + 1;
+			while(eq < end - 1 && b[eq] != '=')
+				eq++;
+			if(eq == end - 1)
+				throw new IOException("bad pax header in " + archive);
+			if(new String(b, i + 1, eq - i - 1, utf8).equals("path"))
+				path = new String(b, eq + 1, end - 1 - eq - 1, utf8);
+			pos = end;
+		}
+		return path;
+	}
+
+	/**
+	 * Reads from in until len bytes are read or the stream ends.
+	 * @param in specify the stream to read
+	 * @param b specify the array to fill
+	 * @param off specify the first index of b to fill
+	 * @param len specify the number of bytes wanted
+	 * @return the number of bytes read
+	 * @throws IOException if in cannot be read
+	 */
+	private static int readFully(InputStream in, byte[] b, int off, int len) throws IOException
+	{
+		int total = 0;
+		while(total < len)
+		{
+			int n = in.read(b, off + total, len - total);
+			if(n == -1)
+				break;
+			total += n;
+		}
+		return total;
+	}
+
+	/**
+	 * Parses a NUL or space terminated octal number of a TAR header. Leading
+	 * spaces and NULs, which older tar writers pad numbers with, are skipped.
+	 * @param b specify the header
+	 * @param off specify the index of the field
+	 * @param len specify the length of the field
+	 * @return the value of the field
+	 * @throws IOException if the field holds a character that is not an octal digit
+	 */
+	private static long parseOctal(byte[] b, int off, int len) throws IOException
+	{
+		int i = off;
+		while(i < off + len && (b[i] == ' ' || b[i] == 0))
+			i++;
+		long value = 0;
+		for(; i < off + len && b[i] != 0 && b[i] != ' '; i++)
+		{
+			if(b[i] < '0' || b[i] > '7')
+				throw new IOException("bad number in TAR header");
+			value = value * 8 + (b[i] - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * Reads a NUL terminated ASCII string of a TAR header.
+	 * @param b specify the header
+	 * @param off specify the index of the field
+	 * @param len specify the length of the field
+	 * @return the string stored in the field
+	 */
+	private static String cString(byte[] b, int off, int len)
+	{
+		int end = off;
+		while(end < off + len && b[end] != 0)
+			end++;
+		return new String(b, off, end - off, Charset.forName("UTF-8"));
+	}
+
+	/**
+	 * Prints the features of every entry of the archives given on the command line.
+	 * @param args the archives to read
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		int threads = Runtime.getRuntime().availableProcessors();
+		for(String arg: args)
+		{
+			Map<String, double[]> prints = new ArchiveCorpus(new File(arg)).fingerprint(threads);
+			for(Map.Entry<String, double[]> e: prints.entrySet())
+				System.out.println(e.getKey() + ": " + Arrays.toString(e.getValue()));
+		}
+	}
+
+	/**
+	 * An EntryHandler is given the contents of each file entry of an archive.
+	 */
+	public interface EntryHandler
+	{
+		/**
+		 * Handles one entry. data is only valid until this method returns.
+		 * @param name specify the path of the entry inside the archive
+		 * @param data specify the bytes of the entry
+		 * @param length specify the number of bytes of data that hold the entry
+		 * @throws IOException if the entry cannot be handled
+		 */
+		void entry(String name, byte[] data, int length) throws IOException;
+	}
+
+	/**
+	 * A ByteArrayOutputStream that exposes its array so one buffer can hold
+	 * each ZIP entry in turn without copying.
+	 */
+	private static class Buffer extends ByteArrayOutputStream
+	{
+		/** chunk used to copy from the input stream */
+		private byte[] chunk = new byte[8192];
+
+		/**
+		 * Appends the rest of in to the buffer.
+		 * @param in specify the stream to read
+		 * @throws IOException if in cannot be read
+		 */
+		void readFrom(InputStream in) throws IOException
+		{
+			int n;
+			while((n = in.read(chunk)) != -1)
+				write(chunk, 0, n);
+		}
+
+		/**
+		 * Returns the array backing the buffer.
+		 * @return the array backing the buffer
+		 */
+		byte[] bytes()
+		{
+			return buf;
+		}
+	}
+}
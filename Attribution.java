@@ -0,0 +1,137 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Attribution class stores the features of one document and the known
+ * authors ranked by how close their weighted sum is to the document's.
+ * The closest author is the prediction for the document.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class Attribution
+{
+	/** name of the document */
+	private String document;
+
+	/** the five features of the document */
+	private double[] features;
+
+	/** weighted sum of the features */
+	private double score;
+
+	/** names of the closest authors, closest first */
+	private String[] authors;
+
+	/** difference between the score and each author's weighted sum */
+	private double[] distances;
+
+	/**
+	 * Creates an Attribution from a ranking that has already been made.
+	 * @param document specify the name of the document
+	 * @param features specify the five features of the document
+	 * @param score specify the weighted sum of the features
+	 * @param authors specify the closest authors, closest first
+	 * @param distances specify the distance to each author in authors
+	 */
+	public Attribution(String document, double[] features, double score,
+			String[] authors, double[] distances)
+	{
+		this.document = document;
+		this.features = features;
+		this.score = score;
+		this.authors = authors;
+		this.distances = distances;
+	}
+
+	/**
+	 * Ranks the known authors for a document by the absolute difference
+	 * between their weighted sum and the document's. Ties keep the order of
+	 * signatures.
+	 * @param document specify the name of the document
+	 * @param features specify the five features of the document
+	 * @param signatures specify the known authors
+	 * @param weights specify the weights of the five features
+	 * @param k specify the number of authors to keep
+	 * @return the k closest authors of the document
+	 */
+	public static Attribution rank(String document, double[] features,
+			List<Signature> signatures, double[] weights, int k)
+	{
+		double score = Signature.weightedSum(features, weights);
+		int n = signatures.size();
+		Integer[] order = new Integer[n];
+		double[] diff = new double[n];
+		for(int i = 0; i < n; i++)
+		{
+			order[i] = i;
+			diff[i] = Math.abs(score - Signature.weightedSum(signatures.get(i).getFeatures(), weights));
+		}
+		Arrays.sort(order, (a, b) -> Double.compare(diff[a], diff[b]));
+		k = Math.min(k, n);
+		String[] authors = new String[k];
+		double[] distances = new double[k];
+		for(int i = 0; i < k; i++)
+		{
+			authors[i] = signatures.get(order[i]).getName();
+			distances[i] = diff[order[i]];
+		}
+		return new Attribution(document, features, score, authors, distances);
+	}
+
+	/**
+	 * Checks if a document has no words, such as an empty file or a text made
+	 * only of punctuation. Its features are not numbers, so ranking authors
+	 * for it would be meaningless.
+	 * @param features specify the five features of the document
+	 * @return true if the document has no words; otherwise, false
+	 */
+	public static boolean hasNoWords(double[] features)
+	{
+		return Double.isNaN(features[0]);
+	}
+
+	/**
+	 * Retrieves the name of the document.
+	 * @return name of the document
+	 */
+	public String getDocument()
+	{
+		return document;
+	}
+
+	/**
+	 * Retrieves the five features of the document.
+	 * @return the features of the document
+	 */
+	public double[] getFeatures()
+	{
+		return features;
+	}
+
+	/**
+	 * Retrieves the weighted sum of the features.
+	 * @return the weighted sum of the features
+	 */
+	public double getScore()
+	{
+		return score;
+	}
+
+	/**
+	 * Retrieves the closest authors, closest first.
+	 * @return the names of the closest authors
+	 */
+	public String[] getAuthors()
+	{
+		return authors;
+	}
+
+	/**
+	 * Retrieves the distance to each of the closest authors.
+	 * @return the distances, in the order of getAuthors
+	 */
+	public double[] getDistances()
+	{
+		return distances;
+	}
+}
@@ -38,7 +38,8 @@ public class Document
 
     /**
      * The getNextToken method attempts to get the next Token from the Scanner in.
-     * It sets currToken value to null if there are no more Tokens left. 
+     * It sets currToken to an END_OF_FILE Token if there are no more Tokens left, 
+     * which happens when the text does not end with white space. 
      * Otherwise, it reads the next Token from the Scanner and set it to currToken. 
      * postcondition: The Scanner is advanced one Token if it is not at its last Token
      * and the currToken instance field is set to Token read from the Scanner in.
@@ -48,7 +49,7 @@ public class Document
         if(in.hasNextToken())
             currToken = in.nextToken();
         else
-            currToken = null;
+            currToken = new Token(Scanner.TOKEN_TYPE.END_OF_FILE, "");
     }
 
     /**
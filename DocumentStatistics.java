@@ -3,16 +3,55 @@ import java.util.*;
 /**
  * DocumentStatistics creates a document signature and generates stats data
  * for the Document given five linguistic features and contains the following 
- * methods: <getAverageWordLength, getTypeTokenRation, getHapaxLegomanaRatio, 
- * getAverageWordsPerSentence, getSentenceComplexity>
+ * methods: <prepare, getAverageWordLength, getTypeTokenRation, getHapaxLegomanaRatio, 
+ * getAverageWordsPerSentence, getSentenceComplexity, getFeatures>
+ * The Document is not walked until a feature is first asked for. The walk
+ * builds a summary (word count, total characters, sentence count, phrase count
+ * and the vocabulary histogram) that every later call reads in O(1) time.
  * @author Helen Li
  * @version May 21 2018
  */
 public class DocumentStatistics 
 {
+    /** pass that counts the words and their characters */
+    public static final int WORDS = 1;
+
+    /** pass that builds the vocabulary histogram, which also counts the words */
+    public static final int VOCABULARY = 2;
+
+    /** pass that counts the phrases */
+    public static final int STRUCTURE = 4;
+
+    /** every pass, needed by getFeatures */
+    public static final int ALL = WORDS | VOCABULARY | STRUCTURE;
+
     /**  Document object that stores relevant info */
     private Document doc;
 
+    /** passes that have already been run over doc */
+    private int done;
+
+    /** number of words in the document */
+    private int wordCount;
+
+    /** number of characters in all the words of the document */
+    private long charCount;
+
+    /** number of sentences in the document */
+    private int sentenceCount;
+
+    /** number of phrases in the document */
+    private int phraseCount;
+
+    /** number of times each word appears in the document, or null if built from counts */
+    private Map<String, Integer> histogram;
+
+    /** number of different words in the document */
+    private int distinctCount;
+
+    /** number of words that appear exactly once in the document */
+    private int hapaxCount;
+
     /**
      * Constructs a DocumentStatistics object and 
      * instantiates the instance variables
@@ -21,33 +60,138 @@ public class DocumentStatistics
     public DocumentStatistics(Document obj)
     {
         doc = obj;
+        done = 0;
     }
 
     /**
-     * Returns the average word length feature, which isthe average number 
-     * of characters per word, calculated after stripping punctuation. 
-     * Comma and final period are stripped but any hyphen characters or 
-     * underscore characters are not.  
-     * @return the average word length feature
+     * Constructs a DocumentStatistics object from a summary that has already
+     * been computed, for example from a TokenIndex, so no Document is needed.
+     * @param wordCount the number of words
+     * @param charCount the number of characters in all the words
+     * @param sentenceCount the number of sentences
+     * @param phraseCount the number of phrases
+     * @param histogram the number of times each word appears
      */
-    public double getAverageWordLength() 
+    public DocumentStatistics(int wordCount, long charCount, int sentenceCount,
+            int phraseCount, Map<String, Integer> histogram)
+    {
+        this.wordCount = wordCount;
+        this.charCount = charCount;
+        this.sentenceCount = sentenceCount;
+        this.phraseCount = phraseCount;
+        this.histogram = histogram;
+        distinctCount = histogram.size();
+        hapaxCount = countHapax(histogram);
+        done = ALL;
+    }
+
+    /**
+     * Constructs a DocumentStatistics object from counts that have already
+     * been computed, for callers that count words without keeping them, such
+     * as a TokenIndex. getHistogram returns null for these statistics.
+     * @param wordCount the number of words
+     * @param charCount the number of characters in all the words
+     * @param sentenceCount the number of sentences
+     * @param phraseCount the number of phrases
+     * @param distinctCount the number of different words
+     * @param hapaxCount the number of words that appear exactly once
+     */
+    public DocumentStatistics(int wordCount, long charCount, int sentenceCount,
+            int phraseCount, int distinctCount, int hapaxCount)
+    {
+        this.wordCount = wordCount;
+        this.charCount = charCount;
+        this.sentenceCount = sentenceCount;
+        this.phraseCount = phraseCount;
+        this.distinctCount = distinctCount;
+        this.hapaxCount = hapaxCount;
+        done = ALL;
+    }
+
+    /**
+     * Runs the given passes over the document in a single walk, skipping
+     * passes that have already been run. Callers that only need some features
+     * can call this with just the passes those features need; each getter
+     * otherwise runs its own passes the first time it is called.
+     * @param passes specify the passes to run, a combination of WORDS, 
+     *        VOCABULARY and STRUCTURE
+     */
+    public void prepare(int passes)
     {
-        double count = 0.0, sum = 0.0;
+        if((passes & VOCABULARY) != 0)
+            passes |= WORDS;
+        int todo = passes & ~done;
+        if(todo == 0)
+            return;
+        boolean words = (todo & (WORDS | VOCABULARY)) != 0;
+        boolean vocabulary = (todo & VOCABULARY) != 0;
+        boolean structure = (todo & STRUCTURE) != 0;
+        if(vocabulary)
+            histogram = new HashMap<String, Integer>();
+        int count = 0, phrases = 0;
+        long sum = 0;
         for(Sentence s : doc.getDoc())
         {
             for(Phrase p : s.getSentence())
             {
+                phrases++;
+                if(!words)
+                    continue;
                 for(Token t : p.getPhrase())
                 {
                     if(t.getType() == Scanner.TOKEN_TYPE.WORD)
                     {
                         count++;
                         sum += t.getValue().length();
+                        if(vocabulary)
+                            histogram.merge(t.getValue(), 1, Integer::sum);
                     }
                 }
             }
         }
-        return sum / count;
+        sentenceCount = doc.getDoc().size();
+        if(words)
+        {
+            wordCount = count;
+            charCount = sum;
+        }
+        if(structure)
+            phraseCount = phrases;
+        if(vocabulary)
+        {
+            distinctCount = histogram.size();
+            hapaxCount = countHapax(histogram);
+        }
+        done |= todo;
+    }
+
+    /**
+     * Counts the words of a histogram that appear exactly once.
+     * @param histogram the number of times each word appears
+     * @return the number of words that appear exactly once
+     */
+    private static int countHapax(Map<String, Integer> histogram)
+    {
+        int count = 0;
+        for(int n : histogram.values())
+        {
+            if(n == 1)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the average word length feature, which isthe average number 
+     * of characters per word, calculated after stripping punctuation. 
+     * Comma and final period are stripped but any hyphen characters or 
+     * underscore characters are not.  
+     * @return the average word length feature
+     */
+    public double getAverageWordLength() 
+    {
+        prepare(WORDS);
+        return (double) charCount / wordCount;
     }
 
     /**
@@ -58,23 +202,8 @@ public class DocumentStatistics
      */
     public double getTypeTokenRation()
     {
-        double count = 0.0;
-        Set<String> wordSet = new HashSet<String>();
-        for(Sentence s : doc.getDoc())
-        {
-            for(Phrase p : s.getSentence())
-            {
-                for(Token t : p.getPhrase())
-                {
-                    if(t.getType() == Scanner.TOKEN_TYPE.WORD)
-                    {
-                        count++;
-                        wordSet.add(t.getValue());
-                    }
-                }
-            }
-        }
-        return wordSet.size() / count;
+        prepare(VOCABULARY);
+        return (double) distinctCount / wordCount;
     }
 
     /**
@@ -84,26 +213,8 @@ public class DocumentStatistics
      */
     public double getHapaxLegomanaRatio()
     {
-        double count = 0.0;
-        Set<String> wordSet = new HashSet<String>();
-        Set<String> duplicates = new HashSet<String>();
-        for(Sentence s : doc.getDoc())
-        {
-            for(Phrase p : s.getSentence())
-            {
-                for(Token t : p.getPhrase())
-                {
-                    if(t.getType() == Scanner.TOKEN_TYPE.WORD)
-                    {
-                        count++;
-                        String word = t.getValue();
-                        if(!wordSet.add(word))
-                            duplicates.add(word);
-                    }
-                }
-            }
-        }
-        return Math.abs(wordSet.size() - duplicates.size()) / count;
+        prepare(VOCABULARY);
+        return (double) hapaxCount / wordCount;
     }
 
     /**
@@ -112,19 +223,8 @@ public class DocumentStatistics
      */
     public double getAverageWordsPerSentence()
     {
-        double count = 0.0;
-        for(Sentence s: doc.getDoc())
-        {
-            for(Phrase p: s.getSentence())
-            {
-                for(Token t: p.getPhrase())
-                {
-                    if(t.getType() == Scanner.TOKEN_TYPE.WORD)
-                        count++;
-                }
-            }
-        }
-        return count / doc.getDoc().size();
+        prepare(WORDS);
+        return (double) wordCount / sentenceCount;
     }
 
     /**
@@ -135,12 +235,35 @@ public class DocumentStatistics
      */
     public double getSentenceComplexity()
     {
-        double phraseCount = 0.0;
-        for(Sentence s: doc.getDoc())
-        {
-            for(Phrase p: s.getSentence())
-                phraseCount += 1;
-        }
-        return phraseCount / doc.getDoc().size();
+        prepare(STRUCTURE);
+        return (double) phraseCount / sentenceCount;
+    }
+
+    /**
+     * Returns the number of times each word appears in the document.
+     * @return an unmodifiable map from each word to its number of appearances,
+     *         or null if these statistics were built from counts
+     */
+    public Map<String, Integer> getHistogram()
+    {
+        prepare(VOCABULARY);
+        if(histogram == null)
+            return null;
+        return Collections.unmodifiableMap(histogram);
+    }
+
+    /**
+     * Returns the five features in the order they are stored in a signature 
+     * file: average word length, TTR, Hapax Legomana Ratio, average words 
+     * per sentence and sentence complexity. All of them come from one walk 
+     * of the document.
+     * @return an array with the five features of the document
+     */
+    public double[] getFeatures()
+    {
+        prepare(ALL);
+        return new double[] {getAverageWordLength(), getTypeTokenRation(),
+                getHapaxLegomanaRatio(), getAverageWordsPerSentence(),
+                getSentenceComplexity()};
     }
 }
\ No newline at end of file
@@ -2,8 +2,8 @@ import java.util.*;
 import java.io.File;
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * DocumentStatisticsTester class tests the DocumentStatistics class with its main method.
@@ -18,7 +18,8 @@ public class DocumentStatisticsTester
 	/**
 	 * Tests the DocumentStatstics class and handles FileNotFoundException and IOException.
 	 * 1. Computes the statistics data for the five mystery texts files with 
-	 * a BufferedReader and a FileReader to parse the document. All stats are printed out. 
+	 * a TextSource to parse the document, which also reads gzip and deflate 
+	 * compressed files. All stats are printed out. 
 	 * 2. Computes the weighted sum of the five document statistics by multiplying each 
 	 * feature with its matching weight value in the instance weights array. Sum is printed out. 
 	 * 3. Uses the known statistics in all the signature files to compute the weighted sum for 
@@ -37,11 +38,12 @@ public class DocumentStatisticsTester
 			{
 				String address = "/Users/helenli/Desktop/FindAuthor/src/MysteryText/mystery"
 						+ i +".txt";
-				BufferedReader br = new BufferedReader(new FileReader(new File(address)));
+				BufferedReader br = TextSource.open(new File(address));
 				Scanner sc = new Scanner(br);
 				Document doc = new Document(sc);
 				doc.parseDocument();
 				DocumentStatistics ds = new DocumentStatistics(doc);
+				ds.prepare(DocumentStatistics.ALL);
 
 				System.out.println("mystery" + i + " -");
 				double wordLength = ds.getAverageWordLength();
@@ -63,7 +65,7 @@ public class DocumentStatisticsTester
 				System.out.println("******************");
 			}
 		}
-		catch(FileNotFoundException ex)
+		catch(IOException | UncheckedIOException ex)
 		{
 			System.out.print("You've encountered an error.");
 			ex.printStackTrace();
@@ -0,0 +1,387 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * FindAuthor is the command-line driver for attribution runs over many
+ * documents. Documents are named by files, directories, glob patterns or a
+ * list of paths read from stdin; ZIP and TAR archives are read entry by
+ * entry. Every document is fingerprinted on a thread pool and its ranked
+ * authors are written in input order as JSON Lines or CSV to a buffered
+ * stdout, so console output stays cheap on large runs.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class FindAuthor
+{
+	/** usage message printed for --help and bad arguments */
+	private static final String USAGE =
+			"usage: java FindAuthor [options] <file|directory|glob|->...\n"
+			+ "  -                  read more paths from stdin, one per line\n"
+			+ "  --signatures PATH  directory of .stats signature files or a snapshot (default SignatureFiles)\n"
+			+ "  --format FORMAT    jsonl or csv (default jsonl)\n"
+			+ "  --threads N        documents fingerprinted at once (default: number of cores)\n"
+			+ "  --top-k K          number of ranked authors per document (default 3)\n"
+			+ "  --weights W1,..,W5 weights of the five features (default 11,33,50,0.4,4)\n"
+			+ "  --quiet            do not print errors or the summary to stderr\n"
+			+ "  --write-snapshot F write the signatures to snapshot file F and exit\n";
+
+	/** number of documents read ahead of the workers for every thread */
+	private static final int WINDOW_PER_THREAD = 16;
+
+	/** directory of signature files or a signature snapshot */
+	private File signaturePath = new File("SignatureFiles");
+
+	/** output format */
+	private ResultWriter.FORMAT format = ResultWriter.FORMAT.JSONL;
+
+	/** number of documents fingerprinted at once */
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/** number of ranked authors per document */
+	private int topK = 3;
+
+	/** weights of the five features */
+	private double[] weights = Signature.DEFAULT_WEIGHTS.clone();
+
+	/** whether errors and the summary are kept off stderr */
+	private boolean quiet;
+
+	/** snapshot file to write the signatures to, or null */
+	private File snapshot;
+
+	/** the files, directories, globs and "-" given on the command line */
+	private List<String> inputs = new ArrayList<String>();
+
+	/** the known authors */
+	private List<Signature> signatures;
+
+	/** where the results are written */
+	private ResultWriter writer;
+
+	/** thread pool that fingerprints the documents */
+	private ExecutorService pool;
+
+	/** fingerprints being computed, handed to write in input order */
+	private OrderedWork<double[]> work;
+
+	/** number of documents written */
+	private long documents;
+
+	/** number of documents that could not be read */
+	private long errors;
+
+	/**
+	 * Runs an attribution over the documents named on the command line.
+	 * @param args the options and inputs, see USAGE
+	 */
+	public static void main(String[] args)
+	{
+		FindAuthor run = new FindAuthor();
+		try
+		{
+			run.parseArgs(args);
+		}
+		catch(IllegalArgumentException ex)
+		{
+			System.err.print(ex.getMessage() + "\n" + USAGE);
+			System.exit(2);
+		}
+		try
+		{
+			run.run();
+		}
+		catch(IOException ex)
+		{
+			System.err.println("find-author: " + ex.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Reads the options and inputs.
+	 * @param args specify the command-line arguments
+	 * @throws IllegalArgumentException if an argument is not understood
+	 */
+	private void parseArgs(String[] args)
+	{
+		for(int i = 0; i < args.length; i++)
+		{
+			String arg = args[i];
+			if(arg.equals("--help") || arg.equals("-h"))
+			{
+				System.out.print(USAGE);
+				System.exit(0);
+			}
+			else if(arg.equals("--quiet") || arg.equals("-q"))
+				quiet = true;
+			else if(arg.equals("--write-snapshot"))
+				snapshot = new File(Options.value(args, ++i, arg));
+			else if(arg.equals("--signatures"))
+				signaturePath = new File(Options.value(args, ++i, arg));
+			else if(arg.equals("--format"))
+			{
+				String f = Options.value(args, ++i, arg);
+				if(f.equalsIgnoreCase("jsonl"))
+					format = ResultWriter.FORMAT.JSONL;
+				else if(f.equalsIgnoreCase("csv"))
+					format = ResultWriter.FORMAT.CSV;
+				else
+					throw new IllegalArgumentException("unknown format: " + f);
+			}
+			else if(arg.equals("--threads"))
+				threads = Options.positive(Options.value(args, ++i, arg), arg);
+			else if(arg.equals("--top-k"))
+				topK = Options.positive(Options.value(args, ++i, arg), arg);
+			else if(arg.equals("--weights"))
+				weights = Options.weights(Options.value(args, ++i, arg), arg);
+			else if(arg.startsWith("--"))
+				throw new IllegalArgumentException("unknown option: " + arg);
+			else
+				inputs.add(arg);
+		}
+		if(inputs.isEmpty() && snapshot == null)
+			throw new IllegalArgumentException("no documents given");
+	}
+
+	/**
+	 * Loads the signatures, attributes every input document and writes the results.
+	 * @throws IOException if the signatures or the output cannot be used
+	 */
+	private void run() throws IOException
+	{
+		long start = System.nanoTime();
+		signatures = Signature.load(signaturePath);
+		if(snapshot != null)
+		{
+			Signature.writeSnapshot(signatures, snapshot);
+			if(!quiet)
+				System.err.println("find-author: wrote " + signatures.size() + " signatures to " + snapshot);
+			return;
+		}
+		writer = new ResultWriter(new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16), format, topK);
+		writer.writeHeader();
+		pool = Executors.newFixedThreadPool(threads);
+		work = new OrderedWork<double[]>(pool, threads * WINDOW_PER_THREAD,
+				new OrderedWork.Sink<double[]>()
+				{
+					public void result(String name, double[] features) throws IOException
+					{
+						write(name, features);
+					}
+
+					public void failure(String name, Throwable cause) throws IOException
+					{
+						error(name, cause);
+					}
+				});
+		try
+		{
+			for(String input: inputs)
+			{
+				if(input.equals("-"))
+				{
+					BufferedReader br = new BufferedReader(
+							new InputStreamReader(System.in, StandardCharsets.UTF_8));
+					String path;
+					while((path = br.readLine()) != null)
+					{
+						if(!path.trim().isEmpty())
+							addInput(path.trim());
+					}
+				}
+				else
+					addInput(input);
+			}
+			work.finish();
+		}
+		finally
+		{
+			pool.shutdownNow();
+			writer.flush();
+		}
+		if(!quiet)
+		{
+			System.err.printf("find-author: %d documents, %d errors, %d ms%n",
+					documents, errors, (System.nanoTime() - start) / 1000000);
+		}
+	}
+
+	/**
+	 * Queues the documents named by one input: a file, a directory, which is
+	 * searched recursively, or a glob pattern.
+	 * @param input specify the input
+	 * @throws IOException if the output cannot be written
+	 */
+	private void addInput(String input) throws IOException
+	{
+		File f = new File(input);
+		if(f.isDirectory())
+			addAll(f.toPath(), null);
+		else if(!f.exists() && isGlob(input))
+		{
+			if(input.startsWith("./"))
+				input = input.substring(2);
+			int cut = firstWildcard(input);
+			int slash = input.lastIndexOf('/', cut);
+			Path base = Paths.get(slash < 0 ? "." : input.substring(0, slash + 1));
+			addAll(base, FileSystems.getDefault().getPathMatcher("glob:" + input));
+		}
+		else
+			addFile(f);
+	}
+
+	/**
+	 * Queues every regular file under dir that matches, in path order.
+	 * @param dir specify the directory to search
+	 * @param matcher specify the pattern files must match, or null for all files
+	 * @throws IOException if the output cannot be written
+	 */
+	private void addAll(Path dir, PathMatcher matcher) throws IOException
+	{
+		List<Path> files;
+		try(Stream<Path> walk = Files.walk(dir))
+		{
+			files = new ArrayList<Path>();
+			walk.filter(Files::isRegularFile)
+					.map(Path::normalize)
+					.filter(p -> matcher == null || matcher.matches(p))
+					.sorted()
+					.forEach(files::add);
+		}
+		catch(IOException ex)
+		{
+			error(dir.toString(), ex);
+			return;
+		}
+		for(Path p: files)
+			addFile(p.toFile());
+	}
+
+	/**
+	 * Queues one file, or every entry of it if it is a ZIP or TAR archive.
+	 * @param f specify the file
+	 * @throws IOException if the output cannot be written
+	 */
+	private void addFile(File f) throws IOException
+	{
+		String name = f.getPath();
+		if(!isArchive(name))
+		{
+			work.submit(name, () ->
+			{
+				try(BufferedReader br = TextSource.open(f))
+				{
+					return ArchiveCorpus.fingerprint(br);
+				}
+			});
+			return;
+		}
+		try
+		{
+			new ArchiveCorpus(f).read((entry, data, length) ->
+			{
+				byte[] copy = Arrays.copyOf(data, length);
+				work.submit(name + "!" + entry, () -> ArchiveCorpus.fingerprint(copy, copy.length));
+			});
+		}
+		catch(IOException ex)
+		{
+			error(name, ex);
+		}
+	}
+
+	/**
+	 * Writes the ranked authors of a document, or an error result if the
+	 * document has no words. The first result is flushed at once and, unless
+	 * quiet, the time from JVM start until it was flushed is printed.
+	 * @param name specify the name of the document
+	 * @param features specify the five features of the document
+	 * @throws IOException if the output cannot be written
+	 */
+	private void write(String name, double[] features) throws IOException
+	{
+		if(Attribution.hasNoWords(features))
+		{
+			error(name, new IOException("no words"));
+			return;
+		}
+		writer.write(Attribution.rank(name, features, signatures, weights, topK));
+		if(documents++ == 0 && !quiet)
+		{
+			writer.flush();
+			// read the clock before loading java.management, which takes tens of ms
+			long now = System.currentTimeMillis();
+			long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+			System.err.println("find-author: first result " + (now - jvmStart) + " ms after JVM start");
+		}
+	}
+
+	/**
+	 * Writes an error result for a document and reports it on stderr.
+	 * @param name specify the name of the document
+	 * @param cause specify what went wrong
+	 * @throws IOException if the output cannot be written
+	 */
+	private void error(String name, Throwable cause) throws IOException
+	{
+		String message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+		writer.writeError(name, message);
+		errors++;
+		if(!quiet)
+			System.err.println("find-author: " + name + ": " + message);
+	}
+
+	/**
+	 * Checks if a file name is a ZIP or TAR archive, possibly compressed.
+	 * @param name specify the file name
+	 * @return true if name has an archive extension; otherwise, false
+	 */
+	private static boolean isArchive(String name)
+	{
+		String n = name.toLowerCase();
+		return n.endsWith(".zip") || n.endsWith(".tar") || n.endsWith(".tar.gz") || n.endsWith(".tgz");
+	}
+
+	/**
+	 * Checks if str holds a glob wildcard.
+	 * @param str specify the String object to be tested for
+	 * @return true if str is a glob pattern; otherwise, false
+	 */
+	private static boolean isGlob(String str)
+	{
+		return firstWildcard(str) < str.length();
+	}
+
+	/**
+	 * Finds the first glob wildcard character in str.
+	 * @param str specify the String object to search
+	 * @return the index of the first wildcard, or the length of str if there is none
+	 */
+	private static int firstWildcard(String str)
+	{
+		for(int i = 0; i < str.length(); i++)
+		{
+			if("*?[{".indexOf(str.charAt(i)) >= 0)
+				return i;
+		}
+		return str.length();
+	}
+}
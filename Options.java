@@ -0,0 +1,71 @@
+/**
+ * Options holds the parsing of option values shared by the command-line
+ * tools, so every tool reports a missing or bad value the same way. Each
+ * method throws an IllegalArgumentException whose message names the option,
+ * which the tools print above their usage.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class Options
+{
+	/**
+	 * Returns the value that follows an option.
+	 * @param args specify the command-line arguments
+	 * @param i specify the index of the value
+	 * @param option specify the option, for the error message
+	 * @return the value of the option
+	 */
+	public static String value(String[] args, int i, String option)
+	{
+		if(i >= args.length)
+			throw new IllegalArgumentException(option + " needs a value");
+		return args[i];
+	}
+
+	/**
+	 * Parses the positive integer value of an option.
+	 * @param s specify the value
+	 * @param option specify the option, for the error message
+	 * @return the value as an int
+	 */
+	public static int positive(String s, String option)
+	{
+		try
+		{
+			int n = Integer.parseInt(s);
+			if(n > 0)
+				return n;
+		}
+		catch(NumberFormatException ex)
+		{
+			// reported below
+		}
+		throw new IllegalArgumentException(option + " needs a positive integer");
+	}
+
+	/**
+	 * Parses the weights of the five features, given as numbers separated
+	 * by commas.
+	 * @param s specify the value
+	 * @param option specify the option, for the error message
+	 * @return the weights
+	 */
+	public static double[] weights(String s, String option)
+	{
+		String[] parts = s.split(",");
+		int n = Signature.DEFAULT_WEIGHTS.length;
+		if(parts.length != n)
+			throw new IllegalArgumentException(option + " needs " + n + " numbers");
+		double[] weights = new double[n];
+		try
+		{
+			for(int w = 0; w < n; w++)
+				weights[w] = Double.parseDouble(parts[w].trim());
+		}
+		catch(NumberFormatException ex)
+		{
+			throw new IllegalArgumentException(option + " needs numbers");
+		}
+		return weights;
+	}
+}
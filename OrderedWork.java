@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * OrderedWork runs named tasks on a thread pool and hands their results to
+ * a Sink in the order the tasks were submitted. At most window tasks are
+ * pending at once; submitting another first waits for the oldest one, so
+ * a long input never queues more than window results in memory.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class OrderedWork<T>
+{
+	/** thread pool that runs the tasks */
+	private ExecutorService pool;
+
+	/** most tasks pending at once */
+	private int window;
+
+	/** receives the result of every task, in submission order */
+	private Sink<T> sink;
+
+	/** names of the pending tasks, in submission order */
+	private ArrayDeque<String> names = new ArrayDeque<String>();
+
+	/** pending tasks, in submission order */
+	private ArrayDeque<Future<T>> pending = new ArrayDeque<Future<T>>();
+
+	/**
+	 * Creates an OrderedWork.
+	 * @param pool specify the thread pool that runs the tasks
+	 * @param window specify the most tasks pending at once
+	 * @param sink specify what receives the results
+	 */
+	public OrderedWork(ExecutorService pool, int window, Sink<T> sink)
+	{
+		this.pool = pool;
+		this.window = window;
+		this.sink = sink;
+	}
+
+	/**
+	 * Starts a task, first handing on the oldest result if the window is full.
+	 * @param name specify the name of the task, given back to the sink
+	 * @param task specify the work to run
+	 * @throws IOException if the sink fails or the wait is interrupted
+	 */
+	public void submit(String name, Callable<T> task) throws IOException
+	{
+		if(pending.size() >= window)
+			next();
+		names.add(name);
+		pending.add(pool.submit(task));
+	}
+
+	/**
+	 * Waits for every pending task and hands on its result.
+	 * @throws IOException if the sink fails or the wait is interrupted
+	 */
+	public void finish() throws IOException
+	{
+		while(!pending.isEmpty())
+			next();
+	}
+
+	/**
+	 * Waits for the oldest pending task and hands its result or failure to the sink.
+	 * @throws IOException if the sink fails or the wait is interrupted
+	 */
+	private void next() throws IOException
+	{
+		String name = names.poll();
+		T value;
+		try
+		{
+			value = pending.poll().get();
+		}
+		catch(InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted", ex);
+		}
+		catch(ExecutionException ex)
+		{
+			sink.failure(name, unwrap(ex.getCause()));
+			return;
+		}
+		sink.result(name, value);
+	}
+
+	/**
+	 * Waits for one task given to a thread pool.
+	 * @param f specify the pending task
+	 * @return the result of the task
+	 * @throws IOException if the task failed or the wait was interrupted
+	 */
+	public static <T> T await(Future<T> f) throws IOException
+	{
+		try
+		{
+			return f.get();
+		}
+		catch(InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted", ex);
+		}
+		catch(ExecutionException ex)
+		{
+			Throwable cause = unwrap(ex.getCause());
+			if(cause instanceof IOException)
+				throw (IOException) cause;
+			throw new IOException(String.valueOf(cause.getMessage()), cause);
+		}
+	}
+
+	/**
+	 * Returns the IOException inside an UncheckedIOException, such as the
+	 * Scanner throws when its input cannot be read, or cause itself otherwise.
+	 * @param cause specify what a task threw
+	 * @return the exception to report
+	 */
+	private static Throwable unwrap(Throwable cause)
+	{
+		if(cause instanceof UncheckedIOException)
+			return cause.getCause();
+		return cause;
+	}
+
+	/**
+	 * A Sink receives the outcome of every task of an OrderedWork.
+	 */
+	public interface Sink<T>
+	{
+		/**
+		 * Receives the result of a task that finished.
+		 * @param name specify the name of the task
+		 * @param value specify the result of the task
+		 * @throws IOException if the result cannot be handled
+		 */
+		void result(String name, T value) throws IOException;
+
+		/**
+		 * Receives the exception thrown by a task that failed.
+		 * @param name specify the name of the task
+		 * @param cause specify what the task threw
+		 * @throws IOException if the failure cannot be handled
+		 */
+		void failure(String name, Throwable cause) throws IOException;
+	}
+}
@@ -0,0 +1,219 @@
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * ResultWriter writes one Attribution per line as JSON Lines or CSV.
+ * Output goes straight to a Writer, which should be buffered, and nothing
+ * is flushed unless the caller asks for it.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class ResultWriter
+{
+	/** define symbolic constants for each output format */
+	public static enum FORMAT
+	{JSONL, CSV};
+
+	/** names of the five features, in the order of DocumentStatistics.getFeatures */
+	private static final String[] FEATURE_NAMES = {"averageWordLength", "typeTokenRatio",
+			"hapaxLegomanaRatio", "averageWordsPerSentence", "sentenceComplexity"};
+
+	/** where the results are written */
+	private Writer out;
+
+	/** format of the results */
+	private FORMAT format;
+
+	/** number of authors in every CSV row */
+	private int topK;
+
+	/** builds each line before it is written */
+	private StringBuilder line = new StringBuilder(256);
+
+	/**
+	 * Creates a ResultWriter.
+	 * @param out specify where the results are written
+	 * @param format specify the format of the results
+	 * @param topK specify the number of authors in every result, which sets
+	 *        the CSV columns
+	 */
+	public ResultWriter(Writer out, FORMAT format, int topK)
+	{
+		this.out = out;
+		this.format = format;
+		this.topK = topK;
+	}
+
+	/**
+	 * Writes the CSV header line. Nothing is written for JSON Lines.
+	 * @throws IOException if the line cannot be written
+	 */
+	public void writeHeader() throws IOException
+	{
+		if(format != FORMAT.CSV)
+			return;
+		line.setLength(0);
+		line.append("document");
+		for(String f: FEATURE_NAMES)
+			line.append(',').append(f);
+		line.append(",score");
+		for(int i = 1; i <= topK; i++)
+			line.append(",author").append(i).append(",distance").append(i);
+		line.append(",error\n");
+		out.write(line.toString());
+	}
+
+	/**
+	 * Writes one result.
+	 * @param a specify the result to write
+	 * @throws IOException if the line cannot be written
+	 */
+	public void write(Attribution a) throws IOException
+	{
+		line.setLength(0);
+		double[] features = a.getFeatures();
+		String[] authors = a.getAuthors();
+		double[] distances = a.getDistances();
+		if(format == FORMAT.CSV)
+		{
+			csv(a.getDocument());
+			for(double f: features)
+				line.append(',').append(f);
+			line.append(',').append(a.getScore());
+			for(int i = 0; i < topK; i++)
+			{
+				line.append(',');
+				if(i < authors.length)
+				{
+					csv(authors[i]);
+					line.append(',').append(distances[i]);
+				}
+				else
+					line.append(',');
+			}
+			line.append(",\n");
+		}
+		else
+		{
+			line.append("{\"document\":");
+			json(a.getDocument());
+			line.append(",\"features\":{");
+			for(int i = 0; i < features.length; i++)
+			{
+				if(i > 0)
+					line.append(',');
+				line.append('"').append(FEATURE_NAMES[i]).append("\":");
+				number(features[i]);
+			}
+			line.append("},\"score\":");
+			number(a.getScore());
+			line.append(",\"authors\":[");
+			for(int i = 0; i < authors.length; i++)
+			{
+				if(i > 0)
+					line.append(',');
+				line.append("{\"name\":");
+				json(authors[i]);
+				line.append(",\"distance\":");
+				number(distances[i]);
+				line.append('}');
+			}
+			line.append("]}\n");
+		}
+		out.write(line.toString());
+	}
+
+	/**
+	 * Writes a result for a document that could not be read.
+	 * @param document specify the name of the document
+	 * @param message specify what went wrong
+	 * @throws IOException if the line cannot be written
+	 */
+	public void writeError(String document, String message) throws IOException
+	{
+		line.setLength(0);
+		if(format == FORMAT.CSV)
+		{
+			csv(document);
+			for(int i = 0; i < FEATURE_NAMES.length + 1 + 2 * topK; i++)
+				line.append(',');
+			line.append(',');
+			csv(message);
+			line.append('\n');
+		}
+		else
+		{
+			line.append("{\"document\":");
+			json(document);
+			line.append(",\"error\":");
+			json(message);
+			line.append("}\n");
+		}
+		out.write(line.toString());
+	}
+
+	/**
+	 * Flushes the underlying Writer.
+	 * @throws IOException if the Writer cannot be flushed
+	 */
+	public void flush() throws IOException
+	{
+		out.flush();
+	}
+
+	/**
+	 * Appends a number to the line. JSON has no NaN or infinity, so those
+	 * are written as null.
+	 * @param d specify the number
+	 */
+	private void number(double d)
+	{
+		if(Double.isNaN(d) || Double.isInfinite(d))
+			line.append("null");
+		else
+			line.append(d);
+	}
+
+	/**
+	 * Appends a quoted JSON string to the line.
+	 * @param s specify the string
+	 */
+	private void json(String s)
+	{
+		line.append('"');
+		for(int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			if(c == '"' || c == '\\')
+				line.append('\\').append(c);
+			else if(c == '\n')
+				line.append("\\n");
+			else if(c == '\r')
+				line.append("\\r");
+			else if(c == '\t')
+				line.append("\\t");
+			else if(c < 0x20)
+				line.append(String.format("\\u%04x", (int) c));
+			else
+				line.append(c);
+		}
+		line.append('"');
+	}
+
+	/**
+	 * Appends a CSV field to the line, quoting it if it holds a comma,
+	 * a quote or a line break.
+	 * @param s specify the field
+	 */
+	private void csv(String s)
+	{
+		if(s == null)
+			s = "";
+		if(s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0)
+		{
+			line.append(s);
+			return;
+		}
+		line.append('"').append(s.replace("\"", "\"\"")).append('"');
+	}
+}
@@ -1,8 +1,7 @@
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 
 /**
  * A Scanner is responsible for reading an input stream, one character at a
@@ -54,6 +53,22 @@ public class Scanner
 		getNextChar();
 	}
 
+	/**
+	 * Points this Scanner at a new Reader so the same Scanner can be reused
+	 * for many small inputs. The endOfFile indicator is set back to false and
+	 * the currentChar field is set to the empty String before it is
+	 * initialized from the new Reader, so nothing of the previous input
+	 * carries over when the new one is empty.
+	 * @param in is the reader object to scan next
+	 */
+	public void setReader(Reader in)
+	{
+		this.in = in;
+		endOfFile = false;
+		currentChar = "";
+		getNextChar();
+	}
+
 	/**
 	 * The getNextChar method attempts to get the next character from the input
 	 * stream.  It sets the endOfFile flag true if the end of file is reached on
@@ -63,6 +78,8 @@ public class Scanner
 	 * end of file and the currentChar instance field is set to the String 
 	 * representation of the character read from the input stream.  The flag
 	 * endOfFile is set true if the input stream is exhausted.
+	 * If the input stream cannot be read, for example because a compressed
+	 * file is truncated, an UncheckedIOException is thrown to the caller.
 	 */
 	private void getNextChar()
 	{
@@ -76,8 +93,7 @@ public class Scanner
 		}
 		catch (IOException e)
 		{
-			e.printStackTrace();
-			System.exit(-1);
+			throw new UncheckedIOException(e);
 		}
 	}
 
@@ -224,9 +240,9 @@ public class Scanner
 	 * Starts the testing program. 
 	 * @param str array of String objects 
 	 */
-	public static void main(String[] str) throws FileNotFoundException
+	public static void main(String[] str) throws IOException
 	{
-		FileReader reader = new FileReader(new File
+		Reader reader = TextSource.open(new File
 				("/Users/helenli/Desktop/FindAuthor/src/MysteryText/mystery1.txt"));
 		Scanner scanner = new Scanner(reader);
 		while(scanner.hasNextToken())
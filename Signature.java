@@ -0,0 +1,213 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Signature class stores the name of a known author and the five linguistic
+ * features read from the author's signature file, and contains the following
+ * methods: <read, readDirectory, load, writeSnapshot, getName, getFeatures, weightedSum>
+ * A signature file holds the author name on its first line followed by one
+ * feature per line, in the order returned by DocumentStatistics.getFeatures.
+ * A snapshot is a single binary file holding many signatures, which loads
+ * with one read instead of opening and parsing every signature file.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class Signature
+{
+	/** weights of the five features, the same values DocumentStatisticsTester uses */
+	public static final double[] DEFAULT_WEIGHTS = {11.0, 33.0, 50.0, 0.4, 4.0};
+
+	/** first int of a snapshot file */
+	private static final int SNAPSHOT_MAGIC = 0x46415347;
+
+	/** format version of snapshot files */
+	private static final int SNAPSHOT_VERSION = 1;
+
+	/** name of the author */
+	private String name;
+
+	/** the five features of the author */
+	private double[] features;
+
+	/**
+	 * Creates a Signature with the given author name and features.
+	 * @param name specify the name of the author
+	 * @param features specify the five features of the author
+	 */
+	public Signature(String name, double[] features)
+	{
+		this.name = name;
+		this.features = features;
+	}
+
+	/**
+	 * Reads a signature file.
+	 * @param f specify the signature file
+	 * @return the Signature stored in f
+	 * @throws IOException if f cannot be read or does not hold five features
+	 */
+	public static Signature read(File f) throws IOException
+	{
+		BufferedReader br = new BufferedReader(new FileReader(f));
+		try
+		{
+			String name = br.readLine();
+			double[] features = new double[5];
+			for(int i = 0; i < features.length; i++)
+			{
+				String line = br.readLine();
+				if(name == null || line == null)
+					throw new IOException(f + " does not hold a name and five features");
+				features[i] = Double.parseDouble(line.trim());
+			}
+			return new Signature(name, features);
+		}
+		catch(NumberFormatException ex)
+		{
+			throw new IOException(f + " holds a feature that is not a number", ex);
+		}
+		finally
+		{
+			br.close();
+		}
+	}
+
+	/**
+	 * Reads every file in dir as a signature file, in file name order.
+	 * @param dir specify the directory of signature files
+	 * @return the Signatures stored in dir
+	 * @throws IOException if dir or one of its files cannot be read
+	 */
+	public static List<Signature> readDirectory(File dir) throws IOException
+	{
+		File[] arr = dir.listFiles();
+		if(arr == null)
+			throw new IOException(dir + " is not a readable directory");
+		Arrays.sort(arr);
+		List<Signature> list = new ArrayList<Signature>();
+		for(File f: arr)
+		{
+			if(f.isFile())
+				list.add(read(f));
+		}
+		return list;
+	}
+
+	/**
+	 * Reads signatures from a directory of signature files or from a snapshot.
+	 * @param f specify the directory or the snapshot file
+	 * @return the Signatures stored in f
+	 * @throws IOException if f cannot be read
+	 */
+	public static List<Signature> load(File f) throws IOException
+	{
+		if(f.isDirectory())
+			return readDirectory(f);
+		return readSnapshot(f);
+	}
+
+	/**
+	 * Reads a snapshot written by writeSnapshot. The whole file is read at once.
+	 * @param f specify the snapshot file
+	 * @return the Signatures stored in f
+	 * @throws IOException if f cannot be read or is not a snapshot
+	 */
+	public static List<Signature> readSnapshot(File f) throws IOException
+	{
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(f.toPath())));
+		if(in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION)
+			throw new IOException(f + " is not a signature snapshot of version " + SNAPSHOT_VERSION);
+		int n = in.readInt();
+		List<Signature> list = new ArrayList<Signature>(n);
+		for(int i = 0; i < n; i++)
+		{
+			String name = in.readUTF();
+			double[] features = new double[in.readInt()];
+			for(int j = 0; j < features.length; j++)
+				features[j] = in.readDouble();
+			list.add(new Signature(name, features));
+		}
+		return list;
+	}
+
+	/**
+	 * Writes signatures to a snapshot file that readSnapshot and load can read.
+	 * @param signatures specify the signatures to write
+	 * @param f specify the snapshot file, replaced if it exists
+	 * @throws IOException if f cannot be written
+	 */
+	public static void writeSnapshot(List<Signature> signatures, File f) throws IOException
+	{
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)));
+		try
+		{
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			out.writeInt(signatures.size());
+			for(Signature s: signatures)
+			{
+				out.writeUTF(s.getName());
+				out.writeInt(s.getFeatures().length);
+				for(double d: s.getFeatures())
+					out.writeDouble(d);
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	/**
+	 * Retrieves the name of the author.
+	 * @return name of the author
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Retrieves the five features of the author.
+	 * @return the features of the author
+	 */
+	public double[] getFeatures()
+	{
+		return features;
+	}
+
+	/**
+	 * Computes the weighted sum of the five features by multiplying each
+	 * feature with its matching weight.
+	 * @param features specify the five features
+	 * @param weights specify the five weights
+	 * @return the weighted sum of features
+	 */
+	public static double weightedSum(double[] features, double[] weights)
+	{
+		double sum = 0.0;
+		for(int i = 0; i < features.length; i++)
+			sum += weights[i] * features[i];
+		return sum;
+	}
+
+	/**
+	 * Returns the name of the author.
+	 * @return a String representing the Signature
+	 */
+	public String toString()
+	{
+		return name;
+	}
+}
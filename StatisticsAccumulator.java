@@ -0,0 +1,64 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * StatisticsAccumulator computes the five features of a text straight from
+ * the Tokens of a Scanner, without building the Sentence and Phrase lists of
+ * a Document. It counts sentences and phrases the same way Document parses
+ * them, so the features are the same as those of DocumentStatistics. One
+ * accumulator can be reused for many texts; its memory only grows with the
+ * vocabulary of the largest text.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class StatisticsAccumulator
+{
+	/** number of times each word appears in the current text */
+	private Map<String, Integer> histogram = new HashMap<String, Integer>();
+
+	/**
+	 * Reads every Token of sc and returns the five features of the text,
+	 * in the order of DocumentStatistics.getFeatures.
+	 * @param sc specify the Scanner positioned at the start of the text
+	 * @return the five features of the text
+	 */
+	public double[] accumulate(Scanner sc)
+	{
+		histogram.clear();
+		int words = 0, sentences = 0, phrases = 0;
+		long chars = 0;
+		boolean inSentence = false, inPhrase = false;
+		while(sc.hasNextToken())
+		{
+			Token t = sc.nextToken();
+			Scanner.TOKEN_TYPE type = t.getType();
+			if(type == Scanner.TOKEN_TYPE.END_OF_FILE)
+				break;
+			if(!inSentence)
+			{
+				sentences++;
+				inSentence = true;
+			}
+			if(type == Scanner.TOKEN_TYPE.END_OF_SENTENCE)
+			{
+				inSentence = false;
+				inPhrase = false;
+				continue;
+			}
+			if(!inPhrase)
+			{
+				phrases++;
+				inPhrase = true;
+			}
+			if(type == Scanner.TOKEN_TYPE.END_OF_PHRASE)
+				inPhrase = false;
+			else if(type == Scanner.TOKEN_TYPE.WORD)
+			{
+				words++;
+				chars += t.getValue().length();
+				histogram.merge(t.getValue(), 1, Integer::sum);
+			}
+		}
+		return new DocumentStatistics(words, chars, sentences, phrases, histogram).getFeatures();
+	}
+}
@@ -0,0 +1,252 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * StreamIngest attributes documents that are piped in instead of read from
+ * files. Each document is a 4-byte big-endian length followed by that many
+ * bytes of UTF-8 text. Documents are read from stdin, or from every
+ * connection to a TCP port on the loopback address, and each result is
+ * written and flushed as soon as its document has been read: to stdout for
+ * stdin, or back over the connection. Every stream reuses one Scanner, one
+ * StatisticsAccumulator and one read buffer, so latency and memory do not
+ * grow with the number of documents.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class StreamIngest
+{
+	/** usage message printed for bad arguments */
+	private static final String USAGE =
+			"usage: java StreamIngest [options]\n"
+			+ "  --port N           listen on 127.0.0.1:N, 1 to 65535, instead of reading stdin\n"
+			+ "  --signatures PATH  directory of .stats signature files or a snapshot (default SignatureFiles)\n"
+			+ "  --format FORMAT    jsonl or csv (default jsonl)\n"
+			+ "  --top-k K          number of ranked authors per document (default 3)\n"
+			+ "  --weights W1,..,W5 weights of the five features (default 11,33,50,0.4,4)\n"
+			+ "  --max-length N     longest document accepted, in bytes (default 64 MiB)\n";
+
+	/** the known authors */
+	private List<Signature> signatures;
+
+	/** output format */
+	private ResultWriter.FORMAT format;
+
+	/** number of ranked authors per document */
+	private int topK;
+
+	/** weights of the five features */
+	private double[] weights;
+
+	/** longest document accepted, in bytes */
+	private int maxLength;
+
+	/**
+	 * Creates a StreamIngest.
+	 * @param signatures specify the known authors
+	 * @param format specify the output format
+	 * @param topK specify the number of ranked authors per document
+	 * @param weights specify the weights of the five features
+	 * @param maxLength specify the longest document accepted, in bytes
+	 */
+	public StreamIngest(List<Signature> signatures, ResultWriter.FORMAT format, int topK,
+			double[] weights, int maxLength)
+	{
+		this.signatures = signatures;
+		this.format = format;
+		this.topK = topK;
+		this.weights = weights;
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Reads length-prefixed documents from in until it ends and writes the
+	 * result of each one to out as soon as it is read. Documents are named
+	 * by their number in the stream, starting at 1. The stream may only end
+	 * before the length of a document.
+	 * @param in specify the stream of documents
+	 * @param out specify where the results are written
+	 * @throws IOException if a stream fails, a length is out of range or a
+	 *         document is cut short
+	 */
+	public void ingest(InputStream in, OutputStream out) throws IOException
+	{
+		InputStream data = new BufferedInputStream(in, TextSource.BUFFER_SIZE);
+		ResultWriter writer = new ResultWriter(new BufferedWriter(
+				new OutputStreamWriter(out, StandardCharsets.UTF_8)), format, topK);
+		Scanner sc = new Scanner(new StringReader(""));
+		StatisticsAccumulator acc = new StatisticsAccumulator();
+		byte[] prefix = new byte[4];
+		byte[] buf = new byte[8192];
+		writer.writeHeader();
+		writer.flush();
+		long count = 0;
+		while(true)
+		{
+			int n = readFully(data, prefix, 4);
+			if(n == 0)
+				break;
+			count++;
+			if(n < 4)
+				throw new IOException("document " + count + ": expected 4 length bytes, received " + n);
+			int length = (prefix[0] & 0xff) << 24 | (prefix[1] & 0xff) << 16
+					| (prefix[2] & 0xff) << 8 | (prefix[3] & 0xff);
+			if(length < 0 || length > maxLength)
+				throw new IOException("document " + count + ": length out of range: " + length);
+			if(buf.length < length)
+				buf = new byte[Math.max(length, Math.min(buf.length * 2, maxLength))];
+			n = readFully(data, buf, length);
+			if(n < length)
+				throw new IOException("document " + count + ": expected " + length
+						+ " bytes, received " + n);
+
+			sc.setReader(new StringReader(new String(buf, 0, length, StandardCharsets.UTF_8)));
+			double[] features = acc.accumulate(sc);
+			if(Attribution.hasNoWords(features))
+				writer.writeError(String.valueOf(count), "no words");
+			else
+				writer.write(Attribution.rank(String.valueOf(count), features, signatures,
+						weights, topK));
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Reads from in until len bytes are read or the stream ends.
+	 * @param in specify the stream to read
+	 * @param b specify the array to fill from its start
+	 * @param len specify the number of bytes wanted
+	 * @return the number of bytes read
+	 * @throws IOException if in cannot be read
+	 */
+	private static int readFully(InputStream in, byte[] b, int len) throws IOException
+	{
+		int total = 0;
+		while(total < len)
+		{
+			int n = in.read(b, total, len - total);
+			if(n == -1)
+				break;
+			total += n;
+		}
+		return total;
+	}
+
+	/**
+	 * Accepts connections on the loopback address forever, ingesting each
+	 * connection on its own thread and writing its results back over it.
+	 * The address it listens on is printed to stderr once it is bound.
+	 * @param port specify the TCP port to listen on
+	 * @throws IOException if the port cannot be opened
+	 */
+	public void serve(int port) throws IOException
+	{
+		ExecutorService pool = Executors.newCachedThreadPool();
+		ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		try
+		{
+			System.err.println("stream-ingest: listening on " + server.getLocalSocketAddress());
+			while(true)
+			{
+				Socket s = server.accept();
+				pool.execute(() ->
+				{
+					try(Socket conn = s)
+					{
+						ingest(conn.getInputStream(), conn.getOutputStream());
+					}
+					catch(IOException ex)
+					{
+						System.err.println("stream-ingest: " + s.getRemoteSocketAddress()
+								+ ": " + ex.getMessage());
+					}
+				});
+			}
+		}
+		finally
+		{
+			server.close();
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Ingests documents from stdin, or from a TCP port with --port.
+	 * @param args the options, see USAGE
+	 */
+	public static void main(String[] args)
+	{
+		File signaturePath = new File("SignatureFiles");
+		ResultWriter.FORMAT format = ResultWriter.FORMAT.JSONL;
+		int topK = 3;
+		double[] weights = Signature.DEFAULT_WEIGHTS;
+		int port = 0;
+		int maxLength = 64 << 20;
+		try
+		{
+			for(int i = 0; i < args.length; i++)
+			{
+				String arg = args[i];
+				if(arg.equals("--signatures"))
+					signaturePath = new File(Options.value(args, ++i, arg));
+				else if(arg.equals("--format"))
+				{
+					String f = Options.value(args, ++i, arg);
+					if(f.equalsIgnoreCase("jsonl"))
+						format = ResultWriter.FORMAT.JSONL;
+					else if(f.equalsIgnoreCase("csv"))
+						format = ResultWriter.FORMAT.CSV;
+					else
+						throw new IllegalArgumentException("unknown format: " + f);
+				}
+				else if(arg.equals("--top-k"))
+					topK = Options.positive(Options.value(args, ++i, arg), arg);
+				else if(arg.equals("--weights"))
+					weights = Options.weights(Options.value(args, ++i, arg), arg);
+				else if(arg.equals("--port"))
+				{
+					String v = Options.value(args, ++i, arg);
+					port = v.matches("[0-9]{1,5}") ? Integer.parseInt(v) : 0;
+					if(port < 1 || port > 65535)
+						throw new IllegalArgumentException(arg + " needs a port from 1 to 65535");
+				}
+				else if(arg.equals("--max-length"))
+					maxLength = Options.positive(Options.value(args, ++i, arg), arg);
+				else
+					throw new IllegalArgumentException("unknown argument: " + arg);
+			}
+		}
+		catch(IllegalArgumentException ex)
+		{
+			System.err.print(ex.getMessage() + "\n" + USAGE);
+			System.exit(2);
+		}
+
+		try
+		{
+			StreamIngest ingest = new StreamIngest(Signature.load(signaturePath),
+					format, topK, weights, maxLength);
+			if(port > 0)
+				ingest.serve(port);
+			else
+				ingest.ingest(System.in, System.out);
+		}
+		catch(IOException ex)
+		{
+			System.err.println("stream-ingest: " + ex.getMessage());
+			System.exit(1);
+		}
+	}
+}
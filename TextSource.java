@@ -0,0 +1,102 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * TextSource opens the text files that are fed to a Scanner. It looks at the
+ * first bytes of each file and, if the file is gzip or zlib (deflate)
+ * compressed, decompresses it on the fly so no temporary files are needed.
+ * Gzip files made of several concatenated members are read member after
+ * member. Plain text files are read as they are.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class TextSource
+{
+	/** size of the buffers placed between the file, the decompressor and the Scanner */
+	public static final int BUFFER_SIZE = 1 << 16;
+
+	/** first two bytes of every gzip member */
+	private static final int GZIP_MAGIC = 0x8b1f;
+
+	/** first four bytes of a zstd frame, which java.util.zip cannot read */
+	private static final int ZSTD_MAGIC = 0xFD2FB528;
+
+	/**
+	 * Opens f for reading by a Scanner, decompressing it if needed.
+	 * @param f specify the file to open
+	 * @return a BufferedReader over the decompressed text of f
+	 * @throws IOException if f cannot be opened or uses an unsupported compression
+	 */
+	public static BufferedReader open(File f) throws IOException
+	{
+		InputStream in = new FileInputStream(f);
+		try
+		{
+			return reader(decompress(in));
+		}
+		catch(IOException ex)
+		{
+			in.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Wraps in with a BufferedReader using the platform charset, the same
+	 * charset a FileReader uses.
+	 * @param in specify the stream of text
+	 * @return a BufferedReader over in
+	 */
+	public static BufferedReader reader(InputStream in)
+	{
+		return new BufferedReader(new InputStreamReader(in), BUFFER_SIZE);
+	}
+
+	/**
+	 * Looks at the first bytes of in and returns a stream of its decompressed
+	 * contents. If in is not compressed, the bytes are returned unchanged.
+	 * @param in specify the stream to examine
+	 * @return a stream of the decompressed bytes of in
+	 * @throws IOException if in cannot be read or uses an unsupported compression
+	 */
+	public static InputStream decompress(InputStream in) throws IOException
+	{
+		BufferedInputStream buf = new BufferedInputStream(in, BUFFER_SIZE);
+		buf.mark(4);
+		int b0 = buf.read();
+		int b1 = buf.read();
+		int b2 = buf.read();
+		int b3 = buf.read();
+		buf.reset();
+		if(b0 == -1 || b1 == -1)
+			return buf;
+		if((b0 | (b1 << 8)) == GZIP_MAGIC)
+			return new GZIPInputStream(buf, BUFFER_SIZE);
+		if(isZlibHeader(b0, b1))
+			return new InflaterInputStream(buf);
+		if(b2 != -1 && b3 != -1 && (b0 | (b1 << 8) | (b2 << 16) | (b3 << 24)) == ZSTD_MAGIC)
+			throw new IOException("zstd compressed input is not supported, recompress with gzip");
+		return buf;
+	}
+
+	/**
+	 * Checks if b0 and b1 form one of the zlib headers written by deflate with
+	 * a 32K window and no preset dictionary, leaving out those that are also the
+	 * first two characters of ordinary text, such as "H," or "x^". The second
+	 * byte of every header accepted here is a control or non-ASCII byte.
+	 * @param b0 specify the first byte of the stream
+	 * @param b1 specify the second byte of the stream
+	 * @return true if b0 and b1 are a zlib header; otherwise, false
+	 */
+	private static boolean isZlibHeader(int b0, int b1)
+	{
+		return b0 == 0x78 && (b1 == 0x01 || b1 == 0x9c || b1 == 0xda);
+	}
+}
@@ -0,0 +1,479 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TokenIndex is a persistent, tokenized copy of a corpus, so statistics can
+ * be computed again without scanning characters. An index is a directory of
+ * three files:
+ *  1. vocab.idx, the words of the whole corpus; a word's id is its position.
+ *  2. tokens.idx, one int stream per document. Each word is its id, the end
+ *     of a phrase is PHRASE_END and the end of a sentence is SENTENCE_END.
+ *  3. documents.idx, the name, offset and length of each document's stream.
+ * Each file starts with a header holding the magic number, the version and
+ * a stamp shared by the three files of one build, so that open can tell
+ * when they do not belong together.
+ * The index is written once with write and memory-mapped by open. The
+ * streams keep the phrases and sentences exactly as Document parsed them.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class TokenIndex
+{
+	/** marks the end of a phrase in a token stream */
+	public static final int PHRASE_END = -1;
+
+	/** marks the end of a sentence in a token stream */
+	public static final int SENTENCE_END = -2;
+
+	/** first int of vocab.idx and documents.idx */
+	private static final int MAGIC = 0x46415449;
+
+	/** format version of the index files */
+	private static final int VERSION = 2;
+
+	/** length of the header of every index file, in ints */
+	private static final int HEADER_INTS = 4;
+
+	/** the words of the corpus, indexed by id */
+	private String[] vocabulary;
+
+	/** length of each word of the corpus, indexed by id */
+	private int[] wordLengths;
+
+	/** per-thread count of each id in one document, all zero between calls of getStatistics */
+	private ThreadLocal<int[]> counts;
+
+	/** names of the documents */
+	private String[] names;
+
+	/** offset of each document's stream in tokens.idx, in ints from the start of the file */
+	private long[] offsets;
+
+	/** length of each document's stream, in ints */
+	private int[] lengths;
+
+	/** tokens.idx mapped into memory, or null if it is too large to map at once */
+	private IntBuffer tokens;
+
+	/** tokens.idx, used to map one document at a time when tokens is null */
+	private File tokenFile;
+
+	/**
+	 * Constructs a TokenIndex from the contents of its files.
+	 * @param vocabulary specify the words of the corpus
+	 * @param names specify the names of the documents
+	 * @param offsets specify the offset of each document's stream
+	 * @param lengths specify the length of each document's stream
+	 * @param tokens specify the mapped token streams, or null
+	 * @param tokenFile specify the file of token streams
+	 */
+	private TokenIndex(String[] vocabulary, String[] names, long[] offsets,
+			int[] lengths, IntBuffer tokens, File tokenFile)
+	{
+		this.vocabulary = vocabulary;
+		this.names = names;
+		this.offsets = offsets;
+		this.lengths = lengths;
+		this.tokens = tokens;
+		this.tokenFile = tokenFile;
+		wordLengths = new int[vocabulary.length];
+		for(int i = 0; i < vocabulary.length; i++)
+			wordLengths[i] = vocabulary[i].length();
+		counts = ThreadLocal.withInitial(() -> new int[vocabulary.length]);
+	}
+
+	/**
+	 * Scans and parses every file and writes their token streams to a new
+	 * index in dir, replacing any index already there. The files are written
+	 * under temporary names and renamed into place one after another once all
+	 * of them are complete, so a document that cannot be read leaves the old
+	 * index intact. The renames are not atomic as a group: if writing stops
+	 * between them, dir holds files of two builds, which open rejects by
+	 * their build stamps, and the index must be written again.
+	 * @param dir specify the directory of the index, created if needed
+	 * @param files specify the documents of the corpus
+	 * @throws IOException if a document cannot be read or the index cannot be written
+	 */
+	public static void write(File dir, List<File> files) throws IOException
+	{
+		if(!dir.isDirectory() && !dir.mkdirs())
+			throw new IOException("cannot create " + dir);
+		File[] temp = {new File(dir, "tokens.idx.tmp"), new File(dir, "documents.idx.tmp"),
+				new File(dir, "vocab.idx.tmp")};
+		boolean written = false;
+		try
+		{
+			writeFiles(temp[0], temp[1], temp[2], files, ThreadLocalRandom.current().nextLong());
+			move(temp[0], new File(dir, "tokens.idx"));
+			move(temp[1], new File(dir, "documents.idx"));
+			move(temp[2], new File(dir, "vocab.idx"));
+			written = true;
+		}
+		finally
+		{
+			if(!written)
+				for(File f: temp)
+					f.delete();
+		}
+	}
+
+	/**
+	 * Writes the three files of an index of the given documents.
+	 * @param tokenFile specify where the token streams are written
+	 * @param documentFile specify where the document table is written
+	 * @param vocabFile specify where the vocabulary is written
+	 * @param files specify the documents of the corpus
+	 * @param stamp specify the build stamp written to the header of each file
+	 * @throws IOException if a document cannot be read or a file cannot be written
+	 */
+	private static void writeFiles(File tokenFile, File documentFile, File vocabFile,
+			List<File> files, long stamp) throws IOException
+	{
+		Map<String, Integer> ids = new HashMap<String, Integer>();
+		List<String> words = new ArrayList<String>();
+		DataOutputStream tok = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(tokenFile), TextSource.BUFFER_SIZE));
+		DataOutputStream docs = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(documentFile)));
+		try
+		{
+			writeHeader(tok, stamp);
+			writeHeader(docs, stamp);
+			docs.writeInt(files.size());
+			long offset = HEADER_INTS;
+			for(File f: files)
+			{
+				Document doc;
+				BufferedReader br = TextSource.open(f);
+				try
+				{
+					doc = new Document(new Scanner(br));
+					doc.parseDocument();
+				}
+				catch(UncheckedIOException ex)
+				{
+					throw new IOException(f + ": " + ex.getCause().getMessage(), ex.getCause());
+				}
+				finally
+				{
+					br.close();
+				}
+				int length = 0;
+				for(Sentence s: doc.getDoc())
+				{
+					for(Phrase p: s.getSentence())
+					{
+						for(Token t: p.getPhrase())
+						{
+							Integer id = ids.get(t.getValue());
+							if(id == null)
+							{
+								id = words.size();
+								ids.put(t.getValue(), id);
+								words.add(t.getValue());
+							}
+							tok.writeInt(id);
+							length++;
+						}
+						tok.writeInt(PHRASE_END);
+						length++;
+					}
+					tok.writeInt(SENTENCE_END);
+					length++;
+				}
+				docs.writeUTF(f.getPath());
+				docs.writeLong(offset);
+				docs.writeInt(length);
+				offset += length;
+			}
+		}
+		finally
+		{
+			tok.close();
+			docs.close();
+		}
+
+		DataOutputStream voc = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(vocabFile)));
+		try
+		{
+			writeHeader(voc, stamp);
+			voc.writeInt(words.size());
+			for(String w: words)
+				voc.writeUTF(w);
+		}
+		finally
+		{
+			voc.close();
+		}
+	}
+
+	/**
+	 * Renames a finished index file over the one it replaces, atomically
+	 * where the file system allows it.
+	 * @param from specify the finished file
+	 * @param to specify the file it replaces
+	 * @throws IOException if the file cannot be renamed
+	 */
+	private static void move(File from, File to) throws IOException
+	{
+		try
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(AtomicMoveNotSupportedException ex)
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Opens an index written by write. The token streams are memory-mapped
+	 * and only the vocabulary and the document table are read into memory.
+	 * @param dir specify the directory of the index
+	 * @return the index stored in dir
+	 * @throws IOException if the index cannot be read, or its files come from
+	 *         different builds or do not match each other
+	 */
+	public static TokenIndex open(File dir) throws IOException
+	{
+		long stamp;
+		String[] vocabulary;
+		DataInputStream voc = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(new File(dir, "vocab.idx")), TextSource.BUFFER_SIZE));
+		try
+		{
+			stamp = checkHeader(voc, dir);
+			vocabulary = new String[voc.readInt()];
+			for(int i = 0; i < vocabulary.length; i++)
+				vocabulary[i] = voc.readUTF();
+		}
+		finally
+		{
+			voc.close();
+		}
+
+		String[] names;
+		long[] offsets;
+		int[] lengths;
+		DataInputStream docs = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(new File(dir, "documents.idx"))));
+		try
+		{
+			if(checkHeader(docs, dir) != stamp)
+				throw new IOException(dir + ": documents.idx and vocab.idx come from different builds");
+			int n = docs.readInt();
+			names = new String[n];
+			offsets = new long[n];
+			lengths = new int[n];
+			for(int i = 0; i < n; i++)
+			{
+				names[i] = docs.readUTF();
+				offsets[i] = docs.readLong();
+				lengths[i] = docs.readInt();
+			}
+		}
+		finally
+		{
+			docs.close();
+		}
+
+		File tokenFile = new File(dir, "tokens.idx");
+		IntBuffer tokens = null;
+		RandomAccessFile raf = new RandomAccessFile(tokenFile, "r");
+		try
+		{
+			if(checkHeader(raf, dir) != stamp)
+				throw new IOException(dir + ": tokens.idx and vocab.idx come from different builds");
+			long end = HEADER_INTS;
+			for(int i = 0; i < names.length; i++)
+				end = Math.max(end, offsets[i] + lengths[i]);
+			if(raf.length() != end * 4)
+				throw new IOException(dir + ": tokens.idx does not match documents.idx");
+			if(raf.length() <= Integer.MAX_VALUE)
+				tokens = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length()).asIntBuffer();
+		}
+		finally
+		{
+			raf.close();
+		}
+		return new TokenIndex(vocabulary, names, offsets, lengths, tokens, tokenFile);
+	}
+
+	/**
+	 * Writes the header of an index file.
+	 * @param out specify the index file
+	 * @param stamp specify the build stamp shared by the files of the index
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void writeHeader(DataOutput out, long stamp) throws IOException
+	{
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(stamp);
+	}
+
+	/**
+	 * Reads and checks the magic number and version of an index file.
+	 * @param in specify the index file
+	 * @param dir specify the directory of the index, for the error message
+	 * @return the build stamp of the file
+	 * @throws IOException if the file is not a TokenIndex file of this version
+	 */
+	private static long checkHeader(DataInput in, File dir) throws IOException
+	{
+		if(in.readInt() != MAGIC || in.readInt() != VERSION)
+			throw new IOException(dir + " is not a token index of version " + VERSION);
+		return in.readLong();
+	}
+
+	/**
+	 * Returns the number of documents in the index.
+	 * @return the number of documents
+	 */
+	public int size()
+	{
+		return names.length;
+	}
+
+	/**
+	 * Returns the name of a document, which is the path it was read from.
+	 * @param i specify the number of the document
+	 * @return the name of the document
+	 */
+	public String getName(int i)
+	{
+		return names[i];
+	}
+
+	/**
+	 * Returns the words of the corpus, indexed by id.
+	 * @return a copy of the vocabulary
+	 */
+	public String[] getVocabulary()
+	{
+		return vocabulary.clone();
+	}
+
+	/**
+	 * Returns the token stream of a document. The buffer is a view of the
+	 * mapped file and can be read by one thread.
+	 * @param i specify the number of the document
+	 * @return the token stream of the document
+	 * @throws IOException if the stream cannot be mapped
+	 */
+	public IntBuffer getTokens(int i) throws IOException
+	{
+		if(tokens != null)
+		{
+			IntBuffer view = tokens.duplicate();
+			view.position((int) offsets[i]);
+			view.limit((int) offsets[i] + lengths[i]);
+			return view.slice();
+		}
+		RandomAccessFile raf = new RandomAccessFile(tokenFile, "r");
+		try
+		{
+			return raf.getChannel().map(FileChannel.MapMode.READ_ONLY,
+					offsets[i] * 4, (long) lengths[i] * 4).asIntBuffer();
+		}
+		finally
+		{
+			raf.close();
+		}
+	}
+
+	/**
+	 * Computes the statistics of a document from its token stream, without
+	 * scanning or parsing the document again. Words are counted by id in an
+	 * array kept for each thread, so no word is looked up or hashed; the
+	 * returned statistics have no histogram.
+	 * @param i specify the number of the document
+	 * @return the statistics of the document
+	 * @throws IOException if the stream cannot be mapped
+	 */
+	public DocumentStatistics getStatistics(int i) throws IOException
+	{
+		IntBuffer stream = getTokens(i);
+		int[] count = counts.get();
+		int words = 0, sentences = 0, phrases = 0, distinct = 0, hapax = 0;
+		long chars = 0;
+		while(stream.hasRemaining())
+		{
+			int id = stream.get();
+			if(id == PHRASE_END)
+				phrases++;
+			else if(id == SENTENCE_END)
+				sentences++;
+			else
+			{
+				words++;
+				chars += wordLengths[id];
+				int n = ++count[id];
+				if(n == 1)
+				{
+					distinct++;
+					hapax++;
+				}
+				else if(n == 2)
+					hapax--;
+			}
+		}
+		stream.rewind();
+		while(stream.hasRemaining())
+		{
+			int id = stream.get();
+			if(id >= 0)
+				count[id] = 0;
+		}
+		return new DocumentStatistics(words, chars, sentences, phrases, distinct, hapax);
+	}
+
+	/**
+	 * Builds or reads an index.
+	 *  java TokenIndex build DIR FILE...   writes an index of the files to DIR
+	 *  java TokenIndex stats DIR           prints the features of every document in DIR
+	 * @param args the command and its arguments
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if(args.length >= 3 && args[0].equals("build"))
+		{
+			List<File> files = new ArrayList<File>();
+			for(String a: Arrays.copyOfRange(args, 2, args.length))
+				files.add(new File(a));
+			write(new File(args[1]), files);
+		}
+		else if(args.length == 2 && args[0].equals("stats"))
+		{
+			TokenIndex idx = open(new File(args[1]));
+			for(int i = 0; i < idx.size(); i++)
+				System.out.println(idx.getName(i) + ": " + Arrays.toString(idx.getStatistics(i).getFeatures()));
+		}
+		else
+			System.err.println("usage: java TokenIndex build DIR FILE... | stats DIR");
+	}
+}
@@ -0,0 +1,448 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * WeightCalibrator searches for the feature weights that attribute a set of
+ * texts of known authorship best. The features of every text are computed
+ * once; each candidate weight vector is then scored by the fraction of texts
+ * whose closest signature, by weighted sum, is the text's real author.
+ * Candidates are scored in parallel, and the search is a grid, a random
+ * search or a coordinate descent starting from the current weights.
+ * @author Helen Li
+ * @version October 19 2026
+ */
+public class WeightCalibrator
+{
+	/** usage message printed for bad arguments */
+	private static final String USAGE =
+			"usage: java WeightCalibrator [options] LABELS\n"
+			+ "  LABELS             lines of <author name><TAB><path of a text by that author>\n"
+			+ "  --signatures PATH  directory of .stats signature files or a snapshot (default SignatureFiles)\n"
+			+ "  --index DIR        read the texts from a TokenIndex instead of scanning them\n"
+			+ "  --mode MODE        grid, random or coordinate (default coordinate)\n"
+			+ "  --candidates N     number of random candidates or descent budget (default 10000)\n"
+			+ "  --threads N        candidates scored at once (default: number of cores)\n"
+			+ "  --seed S           seed of the random search (default 1)\n";
+
+	/** multiples of a weight tried on each axis by the grid and the coordinate descent */
+	private static final double[] STEPS = {0.0, 0.25, 0.5, 0.8, 1.25, 2.0, 4.0};
+
+	/** number of candidates given to a worker at a time */
+	private static final int CHUNK = 64;
+
+	/** the five features of every labelled text */
+	private double[][] features;
+
+	/** index in signatures of the real author of every labelled text */
+	private int[] labels;
+
+	/** the five features of every known author */
+	private double[][] signatures;
+
+	/** thread pool that scores the candidates */
+	private ExecutorService pool;
+
+	/** number of candidates scored so far */
+	private long evaluated;
+
+	/**
+	 * Creates a WeightCalibrator.
+	 * @param features specify the five features of every labelled text
+	 * @param labels specify the index in signatures of the author of every text
+	 * @param signatures specify the known authors
+	 * @param pool specify the thread pool that scores the candidates
+	 */
+	public WeightCalibrator(double[][] features, int[] labels, List<Signature> signatures,
+			ExecutorService pool)
+	{
+		this.features = features;
+		this.labels = labels;
+		this.signatures = new double[signatures.size()][];
+		for(int i = 0; i < this.signatures.length; i++)
+			this.signatures[i] = signatures.get(i).getFeatures();
+		this.pool = pool;
+	}
+
+	/**
+	 * Computes the fraction of labelled texts attributed to their real author
+	 * with the given weights. Ties go to the first signature, as in Attribution.
+	 * @param weights specify the weights of the five features
+	 * @return the attribution accuracy, between 0 and 1
+	 */
+	public double accuracy(double[] weights)
+	{
+		double[] sig = new double[signatures.length];
+		for(int j = 0; j < sig.length; j++)
+			sig[j] = Signature.weightedSum(signatures[j], weights);
+		int correct = 0;
+		for(int i = 0; i < features.length; i++)
+		{
+			double score = Signature.weightedSum(features[i], weights);
+			int best = 0;
+			for(int j = 1; j < sig.length; j++)
+			{
+				if(Math.abs(score - sig[j]) < Math.abs(score - sig[best]))
+					best = j;
+			}
+			if(best == labels[i])
+				correct++;
+		}
+		return (double) correct / features.length;
+	}
+
+	/**
+	 * Scores a batch of candidates in parallel.
+	 * @param candidates specify the weight vectors to score
+	 * @return the accuracy of every candidate
+	 * @throws IOException if scoring fails or is interrupted
+	 */
+	public double[] evaluate(List<double[]> candidates) throws IOException
+	{
+		double[] result = new double[candidates.size()];
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for(int start = 0; start < result.length; start += CHUNK)
+		{
+			int from = start;
+			int to = Math.min(start + CHUNK, result.length);
+			futures.add(pool.submit(() ->
+			{
+				for(int c = from; c < to; c++)
+					result[c] = accuracy(candidates.get(c));
+			}));
+		}
+		for(Future<?> f: futures)
+			OrderedWork.await(f);
+		evaluated += result.length;
+		return result;
+	}
+
+	/**
+	 * Tries every combination of STEPS times the starting weights.
+	 * @param start specify the weights the grid is centred on
+	 * @return the best weights found
+	 * @throws IOException if scoring fails
+	 */
+	public double[] grid(double[] start) throws IOException
+	{
+		List<double[]> candidates = new ArrayList<double[]>();
+		candidates.add(start.clone());
+		int total = 1;
+		for(int d = 0; d < start.length; d++)
+			total *= STEPS.length;
+		for(int n = 0; n < total; n++)
+		{
+			double[] w = new double[start.length];
+			int rest = n;
+			for(int d = 0; d < start.length; d++)
+			{
+				w[d] = start[d] * STEPS[rest % STEPS.length];
+				rest /= STEPS.length;
+			}
+			candidates.add(w);
+		}
+		return best(candidates, evaluate(candidates));
+	}
+
+	/**
+	 * Tries random weights, each drawn log-uniformly between a hundredth and
+	 * ten times the starting weight.
+	 * @param start specify the weights the search is centred on
+	 * @param count specify the number of candidates to try
+	 * @param seed specify the seed of the random numbers
+	 * @return the best weights found
+	 * @throws IOException if scoring fails
+	 */
+	public double[] random(double[] start, int count, long seed) throws IOException
+	{
+		Random rand = new Random(seed);
+		List<double[]> candidates = new ArrayList<double[]>();
+		candidates.add(start.clone());
+		for(int n = 1; n < count; n++)
+		{
+			double[] w = new double[start.length];
+			for(int d = 0; d < w.length; d++)
+				w[d] = start[d] * Math.pow(10, rand.nextDouble() * 3 - 2);
+			candidates.add(w);
+		}
+		return best(candidates, evaluate(candidates));
+	}
+
+	/**
+	 * Improves one weight at a time by trying STEPS times its value, all
+	 * axes of a round in one parallel batch, and keeps the best change of each
+	 * round. Stops when a round finds nothing better or the budget is spent.
+	 * @param start specify the weights to start from
+	 * @param budget specify the most candidates to try
+	 * @return the best weights found
+	 * @throws IOException if scoring fails
+	 */
+	public double[] coordinateDescent(double[] start, int budget) throws IOException
+	{
+		double[] best = start.clone();
+		double bestAccuracy = accuracy(best);
+		evaluated++;
+		while(evaluated + start.length * STEPS.length <= budget)
+		{
+			List<double[]> candidates = new ArrayList<double[]>();
+			for(int d = 0; d < best.length; d++)
+			{
+				double base = best[d] != 0.0 ? best[d] : start[d];
+				for(double step: STEPS)
+				{
+					double[] w = best.clone();
+					w[d] = base * step;
+					candidates.add(w);
+				}
+			}
+			double[] scores = evaluate(candidates);
+			int top = indexOfMax(scores);
+			if(scores[top] <= bestAccuracy)
+				break;
+			best = candidates.get(top);
+			bestAccuracy = scores[top];
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the number of candidates scored so far.
+	 * @return the number of candidates scored
+	 */
+	public long getEvaluated()
+	{
+		return evaluated;
+	}
+
+	/**
+	 * Returns the candidate with the highest score, the first one on ties.
+	 * @param candidates specify the candidates
+	 * @param scores specify the score of every candidate
+	 * @return the best candidate
+	 */
+	private static double[] best(List<double[]> candidates, double[] scores)
+	{
+		return candidates.get(indexOfMax(scores));
+	}
+
+	/**
+	 * Finds the first index of the largest value.
+	 * @param values specify the values
+	 * @return the index of the largest value
+	 */
+	private static int indexOfMax(double[] values)
+	{
+		int top = 0;
+		for(int i = 1; i < values.length; i++)
+		{
+			if(values[i] > values[top])
+				top = i;
+		}
+		return top;
+	}
+
+	/**
+	 * Reads the labelled texts, searches for the best weights and prints
+	 * the accuracy of the current and the best weights.
+	 * @param args the options and the labels file, see USAGE
+	 */
+	public static void main(String[] args)
+	{
+		File signaturePath = new File("SignatureFiles");
+		File indexDir = null;
+		String mode = "coordinate";
+		int candidates = 10000;
+		int threads = Runtime.getRuntime().availableProcessors();
+		long seed = 1;
+		String labelsFile = null;
+		try
+		{
+			for(int i = 0; i < args.length; i++)
+			{
+				String arg = args[i];
+				if(arg.equals("--signatures"))
+					signaturePath = new File(Options.value(args, ++i, arg));
+				else if(arg.equals("--index"))
+					indexDir = new File(Options.value(args, ++i, arg));
+				else if(arg.equals("--mode"))
+				{
+					mode = Options.value(args, ++i, arg);
+					if(!Arrays.asList("grid", "random", "coordinate").contains(mode))
+						throw new IllegalArgumentException("unknown mode: " + mode);
+				}
+				else if(arg.equals("--candidates"))
+					candidates = Options.positive(Options.value(args, ++i, arg), arg);
+				else if(arg.equals("--threads"))
+					threads = Options.positive(Options.value(args, ++i, arg), arg);
+				else if(arg.equals("--seed"))
+				{
+					String v = Options.value(args, ++i, arg);
+					try
+					{
+						seed = Long.parseLong(v);
+					}
+					catch(NumberFormatException ex)
+					{
+						throw new IllegalArgumentException(arg + " needs an integer");
+					}
+				}
+				else if(!arg.startsWith("--") && labelsFile == null)
+					labelsFile = arg;
+				else
+					throw new IllegalArgumentException("unknown argument: " + arg);
+			}
+			if(labelsFile == null)
+				throw new IllegalArgumentException("no labels file given");
+		}
+		catch(IllegalArgumentException ex)
+		{
+			System.err.print(ex.getMessage() + "\n" + USAGE);
+			System.exit(2);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Signature> sigs = Signature.load(signaturePath);
+			Map<String, Integer> authorIndex = new HashMap<String, Integer>();
+			for(int j = 0; j < sigs.size(); j++)
+				authorIndex.put(sigs.get(j).getName().trim().toLowerCase(), j);
+
+			List<String> paths = new ArrayList<String>();
+			List<Integer> labels = new ArrayList<Integer>();
+			BufferedReader br = new BufferedReader(new FileReader(labelsFile));
+			try
+			{
+				String line;
+				while((line = br.readLine()) != null)
+				{
+					if(line.trim().isEmpty())
+						continue;
+					int tab = line.indexOf('\t');
+					Integer author = tab < 0 ? null
+							: authorIndex.get(line.substring(0, tab).trim().toLowerCase());
+					if(author == null)
+						throw new IOException("no signature for the author of: " + line);
+					paths.add(line.substring(tab + 1).trim());
+					labels.add(author);
+				}
+			}
+			finally
+			{
+				br.close();
+			}
+
+			long start = System.nanoTime();
+			double[][] features = features(paths, indexDir, pool);
+			int[] labelArray = new int[labels.size()];
+			for(int i = 0; i < labelArray.length; i++)
+				labelArray[i] = labels.get(i);
+			WeightCalibrator cal = new WeightCalibrator(features, labelArray, sigs, pool);
+			long searchStart = System.nanoTime();
+			double[] current = Signature.DEFAULT_WEIGHTS;
+			double[] best;
+			if(mode.equals("grid"))
+				best = cal.grid(current);
+			else if(mode.equals("random"))
+				best = cal.random(current, candidates, seed);
+			else
+				best = cal.coordinateDescent(current, candidates);
+			long end = System.nanoTime();
+
+			double seconds = (end - searchStart) / 1e9;
+			System.out.printf("texts: %d, features computed in %d ms%n",
+					features.length, (searchStart - start) / 1000000);
+			System.out.printf("candidates: %d in %.3f s (%.0f per second)%n",
+					cal.getEvaluated(), seconds, cal.getEvaluated() / Math.max(seconds, 1e-9));
+			System.out.printf("current weights accuracy: %.4f%n", cal.accuracy(current));
+			System.out.printf("best weights accuracy: %.4f%n", cal.accuracy(best));
+			StringBuilder flag = new StringBuilder();
+			StringBuilder array = new StringBuilder("{0.0");
+			for(int d = 0; d < best.length; d++)
+			{
+				flag.append(d > 0 ? "," : "").append(best[d]);
+				array.append(", ").append(best[d]);
+			}
+			System.out.println("best weights: --weights " + flag);
+			System.out.println("DocumentStatisticsTester weights: " + array + "}");
+		}
+		catch(IOException ex)
+		{
+			System.err.println("calibrate: " + ex.getMessage());
+			System.exit(1);
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Computes the five features of every labelled text in parallel, or reads
+	 * them from a TokenIndex holding documents with the same paths.
+	 * @param paths specify the paths of the texts
+	 * @param indexDir specify the directory of a TokenIndex, or null to scan the texts
+	 * @param pool specify the thread pool that computes the features
+	 * @return the features of every text, in the order of paths
+	 * @throws IOException if a text or the index cannot be read, or a text has no words
+	 */
+	private static double[][] features(List<String> paths, File indexDir, ExecutorService pool)
+			throws IOException
+	{
+		List<Future<double[]>> futures = new ArrayList<Future<double[]>>();
+		if(indexDir != null)
+		{
+			TokenIndex idx = TokenIndex.open(indexDir);
+			Map<String, Integer> byName = new HashMap<String, Integer>();
+			for(int i = 0; i < idx.size(); i++)
+				byName.put(idx.getName(i), i);
+			for(String p: paths)
+			{
+				Integer doc = byName.get(p);
+				if(doc == null)
+					throw new IOException(p + " is not in the index " + indexDir);
+				futures.add(pool.submit(() -> idx.getStatistics(doc).getFeatures()));
+			}
+		}
+		else
+		{
+			for(String p: paths)
+			{
+				Callable<double[]> task = () ->
+				{
+					try(BufferedReader br = TextSource.open(new File(p)))
+					{
+						return ArchiveCorpus.fingerprint(br);
+					}
+				};
+				futures.add(pool.submit(task));
+			}
+		}
+		double[][] features = new double[paths.size()][];
+		for(int i = 0; i < features.length; i++)
+		{
+			try
+			{
+				features[i] = OrderedWork.await(futures.get(i));
+			}
+			catch(IOException ex)
+			{
+				throw new IOException(paths.get(i) + ": " + ex.getMessage(), ex);
+			}
+			if(Attribution.hasNoWords(features[i]))
+				throw new IOException(paths.get(i) + ": no words");
+		}
+		return features;
+	}
+}
@@ -0,0 +1,38 @@
+#!/bin/sh
+# Fast start for short FindAuthor runs.
+#   ./fast-start.sh setup         compiles the sources, writes a signature snapshot
+#                                 and records a class-data-sharing archive (JDK 13+)
+#   ./fast-start.sh run ARGS...   runs FindAuthor with the archive, the snapshot and
+#                                 JVM flags for short runs
+# Run setup again after changing the sources or the signature files.
+set -e
+# absolute, so that run keeps the caller's directory for relative document paths
+ROOT=$(cd "$(dirname "$0")" && pwd)
+BUILD="$ROOT/build"
+# short runs finish before the optimizing compiler pays off, and a serial
+# collector without perf data starts fastest
+FLAGS="-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -XX:-UsePerfData"
+case "$1" in
+setup)
+	cd "$ROOT"
+	rm -rf "$BUILD"
+	mkdir -p "$BUILD/classes"
+	javac -d "$BUILD/classes" *.java
+	# class-data sharing only archives classes loaded from JAR files
+	jar cf "$BUILD/find-author.jar" -C "$BUILD/classes" .
+	java -cp "$BUILD/find-author.jar" FindAuthor --quiet --signatures SignatureFiles \
+		--write-snapshot "$BUILD/signatures.snap"
+	# not --quiet, so the classes that print the summary are archived too
+	java $FLAGS -XX:ArchiveClassesAtExit="$BUILD/find-author.jsa" -cp "$BUILD/find-author.jar" \
+		FindAuthor --signatures "$BUILD/signatures.snap" MysteryText/mystery2.txt > /dev/null 2>&1
+	;;
+run)
+	shift
+	exec java $FLAGS -XX:SharedArchiveFile="$BUILD/find-author.jsa" -cp "$BUILD/find-author.jar" \
+		FindAuthor --signatures "$BUILD/signatures.snap" "$@"
+	;;
+*)
+	echo "usage: $0 setup | run ARGS..." >&2
+	exit 2
+	;;
+esac